@@ -0,0 +1,87 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.stone.beecp.BeeConnectionFactory;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.driver.MockRoundTripConnection;
+import org.stone.beecp.pool.ConnectionAliveTestByEmptyQuery;
+import org.stone.beecp.pool.FastConnectionPool;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Benchmark on latency of alive tests,network round trips are simulated by mock connections(each call to server
+ * parks a time),so latency of a test is mostly decided by its count of round trips.
+ * <ul>
+ * <li>isValid: {@code Connection.isValid}</li>
+ * <li>sqlInTransaction: test sql executed in a rollback transaction with auto-commit toggling</li>
+ * <li>sqlProbe: probe sql({@code SELECT 1}) on a cached statement</li>
+ * <li>emptyQuery: {@link ConnectionAliveTestByEmptyQuery}</li>
+ * </ul>
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AliveTestBenchmark {
+    @Param({"isValid", "sqlInTransaction", "sqlProbe", "emptyQuery"})
+    public String aliveTest;
+    @Param({"50"})
+    public long roundTripMicros;
+
+    private FastConnectionPool pool;
+    private Object conValidTest;
+    private Method aliveTestMethod;
+    private Object pooledConn;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        final boolean supportIsValid = "isValid".equals(aliveTest);
+        BeeDataSourceConfig config = BenchmarkPoolFactory.createConfig(1);
+        config.setDefaultAutoCommit(true);
+        config.setAliveTestSql("sqlInTransaction".equals(aliveTest) ? "SELECT now()" : "SELECT 1");
+        if ("emptyQuery".equals(aliveTest)) config.setAliveTest(new ConnectionAliveTestByEmptyQuery());
+        config.setConnectionFactory(new BeeConnectionFactory() {
+            public Connection create() {
+                return new MockRoundTripConnection(roundTripNanos, supportIsValid);
+            }
+        });
+        this.pool = BenchmarkPoolFactory.createPool(config);
+
+        //alive test of pool is not exposed,so get it by reflection
+        Field testField = FastConnectionPool.class.getDeclaredField("conValidTest");
+        testField.setAccessible(true);
+        this.conValidTest = testField.get(pool);
+        this.aliveTestMethod = Class.forName("org.stone.beecp.pool.PooledConnectionAliveTest").getDeclaredMethod("isAlive", Class.forName("org.stone.beecp.pool.PooledConnection"));
+        this.aliveTestMethod.setAccessible(true);
+        Field arrayField = FastConnectionPool.class.getDeclaredField("pooledArray");
+        arrayField.setAccessible(true);
+        this.pooledConn = ((AtomicReferenceArray<?>) arrayField.get(pool)).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.pool.close();
+    }
+
+    @Benchmark
+    public Object testAlive() throws Exception {
+        return aliveTestMethod.invoke(conValidTest, pooledConn);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.benchmark;
+
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.pool.FastConnectionPool;
+
+import java.sql.SQLException;
+
+/**
+ * Pool factory of benchmarks,pools are created on mock driver,so no database is needed
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class BenchmarkPoolFactory {
+    static final String MOCK_URL = "jdbc:beecp://localhost/testdb";
+    static final String MOCK_DRIVER = "org.stone.beecp.driver.MockDriver";
+
+    private BenchmarkPoolFactory() {
+    }
+
+    static BeeDataSourceConfig createConfig(int maxActive) {
+        BeeDataSourceConfig config = new BeeDataSourceConfig();
+        config.setJdbcUrl(MOCK_URL);
+        config.setDriverClassName(MOCK_DRIVER);
+        config.setInitialSize(maxActive);
+        config.setMaxActive(maxActive);
+        config.setMaxWait(10000L);
+        config.setPrintConfigInfo(false);
+        return config;
+    }
+
+    static FastConnectionPool createPool(BeeDataSourceConfig config) throws SQLException {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        return pool;
+    }
+}
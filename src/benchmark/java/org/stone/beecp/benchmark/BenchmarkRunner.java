@@ -0,0 +1,80 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runner of benchmarks,which runs selected benchmarks on a sweep of thread counts.
+ * <p>
+ * Supported system properties(mvn -Pbenchmark test-compile exec:exec -Dbenchmark.threads=1,8)
+ * <ul>
+ * <li>benchmark.include: regexp of benchmarks,default is all benchmarks in this package</li>
+ * <li>benchmark.exclude: regexp of excluded benchmarks,default is VirtualThreadBorrowBenchmark(JDK21+),set empty to run it</li>
+ * <li>benchmark.threads: thread counts,default is 1,4,16,64</li>
+ * <li>benchmark.forks: fork count,default is 1</li>
+ * <li>benchmark.warmupIterations: warmup iterations,default is 3</li>
+ * <li>benchmark.iterations: measurement iterations,default is 5</li>
+ * <li>benchmark.time: seconds of each iteration,default is 2</li>
+ * <li>benchmark.params: jmh parameters,for example: fairMode=true;enableThreadLocal=false,true</li>
+ * <li>benchmark.prof: jmh profiler name,for example: gc</li>
+ * <li>benchmark.result: result file prefix,results are written as json when set</li>
+ * </ul>
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public final class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = System.getProperty("benchmark.include", BenchmarkRunner.class.getPackage().getName() + ".*");
+        String exclude = System.getProperty("benchmark.exclude", VirtualThreadBorrowBenchmark.class.getName());
+        String[] threadCounts = System.getProperty("benchmark.threads", "1,4,16,64").split(",");
+        int forks = Integer.getInteger("benchmark.forks", 1);
+        int warmupIterations = Integer.getInteger("benchmark.warmupIterations", 3);
+        int iterations = Integer.getInteger("benchmark.iterations", 5);
+        int time = Integer.getInteger("benchmark.time", 2);
+        String params = System.getProperty("benchmark.params");
+        String prof = System.getProperty("benchmark.prof");
+        String result = System.getProperty("benchmark.result");
+
+        for (String threadCount : threadCounts) {
+            int threads = Integer.parseInt(threadCount.trim());
+            ChainedOptionsBuilder builder = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .forks(forks)
+                    .warmupIterations(warmupIterations)
+                    .warmupTime(TimeValue.seconds(time))
+                    .measurementIterations(iterations)
+                    .measurementTime(TimeValue.seconds(time));
+
+            if (exclude != null && !exclude.isEmpty()) builder.exclude(exclude);
+            if (params != null && !params.isEmpty()) {
+                for (String param : params.split(";")) {
+                    int index = param.indexOf('=');
+                    if (index > 0)
+                        builder.param(param.substring(0, index).trim(), param.substring(index + 1).trim().split(","));
+                }
+            }
+            if (prof != null && !prof.isEmpty()) builder.addProfiler(prof);
+            if (result != null && !result.isEmpty()) {
+                builder.resultFormat(ResultFormatType.JSON);
+                builder.result(result + "-threads" + threads + ".json");
+            }
+            new Runner(builder.build()).run();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.pool.FastConnectionPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark on hot path of pool:{@code FastConnectionPool.getConnection()} and {@code Connection.close()}
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BorrowReturnBenchmark {
+    @Param({"32"})
+    public int maxActive;
+    @Param({"false", "true"})
+    public boolean fairMode;
+    @Param({"true", "false"})
+    public boolean enableThreadLocal;
+    //zero means that using default semaphore size of config(cpu count at most)
+    @Param({"1", "4", "0"})
+    public int borrowSemaphoreSize;
+    @Param({"false"})
+    public boolean enableStripedIdleIndex;
+    @Param({"false"})
+    public boolean enableCasSemaphore;
+
+    private FastConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        BeeDataSourceConfig config = BenchmarkPoolFactory.createConfig(maxActive);
+        config.setFairMode(fairMode);
+        config.setEnableThreadLocal(enableThreadLocal);
+        if (borrowSemaphoreSize > 0) config.setBorrowSemaphoreSize(borrowSemaphoreSize);
+        config.setEnableStripedIdleIndex(enableStripedIdleIndex);
+        config.setEnableCasSemaphore(enableCasSemaphore);
+        this.pool = BenchmarkPoolFactory.createPool(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.pool.close();
+    }
+
+    @Benchmark
+    public Connection borrowAndReturn() throws SQLException {
+        Connection con = pool.getConnection();
+        con.close();
+        return con;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.pool.FastConnectionPool;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark on allocation of borrowing and proxy objects,run it with gc profiler to get allocation rates
+ * (mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=.*ProxyAllocationBenchmark.* -Dbenchmark.prof=gc),
+ * then compare {@code gc.alloc.rate.norm}(bytes per operation) between versions.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProxyAllocationBenchmark {
+    private static final String SQL = "select 1 from dual";
+    @Param({"32"})
+    public int maxActive;
+    @Param({"true", "false"})
+    public boolean enableThreadLocal;
+    @Param({"0", "10"})
+    public int preparedStatementCacheSize;
+
+    private FastConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        BeeDataSourceConfig config = BenchmarkPoolFactory.createConfig(maxActive);
+        config.setEnableThreadLocal(enableThreadLocal);
+        config.setPreparedStatementCacheSize(preparedStatementCacheSize);
+        this.pool = BenchmarkPoolFactory.createPool(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.pool.close();
+    }
+
+    //only connection proxy
+    @Benchmark
+    public Connection borrowAndReturn() throws SQLException {
+        Connection con = pool.getConnection();
+        con.close();
+        return con;
+    }
+
+    //connection proxy,statement proxy,result set proxy and repeated calls of metadata
+    @Benchmark
+    public void borrowAndQuery(Blackhole blackhole) throws SQLException {
+        Connection con = pool.getConnection();
+        try {
+            blackhole.consume(con.getMetaData());
+            blackhole.consume(con.getMetaData());
+            PreparedStatement ps = con.prepareStatement(SQL);
+            ResultSet rs = ps.executeQuery();
+            blackhole.consume(rs.getMetaData());
+            blackhole.consume(rs.getMetaData());
+            rs.close();
+            ps.close();
+        } finally {
+            con.close();
+        }
+    }
+}
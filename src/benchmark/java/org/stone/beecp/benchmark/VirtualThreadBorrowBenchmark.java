@@ -0,0 +1,86 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.pool.FastConnectionPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark on borrowing of many virtual threads,an operation is a round of borrowers(each borrows and returns once).
+ * Virtual threads executor is created by reflection(JDK21+),benchmark fails on older JDK.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VirtualThreadBorrowBenchmark {
+    @Param({"32"})
+    public int maxActive;
+    @Param({"100000"})
+    public int borrowers;
+    @Param({"true", "false"})
+    public boolean enableVirtualThreadMode;
+
+    private FastConnectionPool pool;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        try {
+            this.executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads not supported in jdk " + System.getProperty("java.version") + ",requires jdk21+");
+        }
+
+        BeeDataSourceConfig config = BenchmarkPoolFactory.createConfig(maxActive);
+        config.setEnableVirtualThreadMode(enableVirtualThreadMode);
+        config.setMaxWait(TimeUnit.MINUTES.toMillis(1L));
+        this.pool = BenchmarkPoolFactory.createPool(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.executor.shutdownNow();
+        this.pool.close();
+    }
+
+    @Benchmark
+    public int borrowInVirtualThreads() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(borrowers);
+        final AtomicInteger failedCount = new AtomicInteger();
+        for (int i = 0; i < borrowers; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        Connection con = pool.getConnection();
+                        con.close();
+                    } catch (SQLException e) {
+                        failedCount.incrementAndGet();
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        latch.await();
+        return failedCount.get();
+    }
+}
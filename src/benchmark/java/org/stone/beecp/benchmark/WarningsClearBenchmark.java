@@ -0,0 +1,78 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.stone.beecp.BeeConnectionFactory;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.driver.MockConnection;
+import org.stone.beecp.pool.FastConnectionPool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark on warnings clearing of connection return,cost of a driver round trip is simulated by cpu consuming
+ * in {@code clearWarnings} of mock connections.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WarningsClearBenchmark {
+    @Param({"32"})
+    public int maxActive;
+    @Param({"true", "false"})
+    public boolean forceClearWarnings;
+    @Param({"1000"})
+    public long clearCost;//tokens consumed in a clearing
+
+    private FastConnectionPool pool;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        BeeDataSourceConfig config = BenchmarkPoolFactory.createConfig(maxActive);
+        config.setForceClearWarnings(forceClearWarnings);
+        config.setConnectionFactory(new BeeConnectionFactory() {
+            public Connection create() {
+                return new RoundTripConnection(clearCost);
+            }
+        });
+        this.pool = BenchmarkPoolFactory.createPool(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() {
+        this.pool.close();
+    }
+
+    @Benchmark
+    public Connection borrowAndReturn() throws SQLException {
+        Connection con = pool.getConnection();
+        con.close();
+        return con;
+    }
+
+    private static final class RoundTripConnection extends MockConnection {
+        private final long clearCost;
+
+        RoundTripConnection(long clearCost) {
+            this.clearCost = clearCost;
+        }
+
+        public void clearWarnings() {
+            Blackhole.consumeCPU(clearCost);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp;
+
+import javax.sql.XAConnection;
+import java.sql.Connection;
+
+/**
+ * An optional extension of {@link BeeConnectionPool} to borrow connections asynchronously,{@link BeeDataSource}
+ * supports async borrowing only when its pool implements this interface.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public interface BeeAsyncConnectionPool extends BeeConnectionPool {
+
+    /**
+     * Attempts to borrow a connection from pool without blocking caller thread,returned future completes when an idle
+     * connection caught or a released connection transferred to it;fails when timeout in waiting or other exceptions.
+     * Listeners added to the future may be run in caller thread(completed immediately) or a thread of pool,so they should
+     * be lightweight or run with an executor.
+     *
+     * @return a future of borrowed connection
+     */
+    BeeConnectionFuture<Connection> getConnectionAsync();
+
+    /**
+     * Attempts to borrow a XA connection from pool without blocking caller thread,refer to {@link #getConnectionAsync()}
+     *
+     * @return a future of borrowed XA connection
+     */
+    BeeConnectionFuture<XAConnection> getXAConnectionAsync();
+}
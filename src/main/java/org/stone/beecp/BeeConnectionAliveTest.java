@@ -0,0 +1,33 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * An alive test interface on pooled connections,which can be implemented with native ping methods of drivers
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public interface BeeConnectionAliveTest {
+
+    /**
+     * Tests a raw connection whether alive,it is called on borrowing or in background alive tests,
+     * properties of connection(autoCommit,transaction and others) should be not changed by test.
+     *
+     * @param con     is a raw connection created by driver or connection factory
+     * @param timeout is max wait time in seconds to get test result
+     * @return true means connection is alive
+     * @throws SQLException when test failed,the connection is considered as bad
+     */
+    boolean isAlive(Connection con, int timeout) throws SQLException;
+}
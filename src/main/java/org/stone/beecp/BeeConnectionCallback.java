@@ -0,0 +1,32 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A callback to work on a scoped connection,see {@link BeeDataSource#withConnection}
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public interface BeeConnectionCallback<T> {
+
+    /**
+     * Works on a connection borrowed in scope,{@code getConnection} calls of data source in this method(include
+     * nested calls) share the scoped connection,which is returned to pool once on scope exit.
+     *
+     * @param con is a shared view on connection of scope,closing it not return the scoped connection
+     * @return result of work
+     * @throws SQLException when error occurs in work
+     */
+    T call(Connection con) throws SQLException;
+}
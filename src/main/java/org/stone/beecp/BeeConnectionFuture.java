@@ -0,0 +1,32 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * A future of asynchronous borrowing,which completes when a connection transferred to it,or fails on timeout,
+ * creation failure,pool clearing.Cancellation is allowed before completion.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public interface BeeConnectionFuture<T> extends Future<T> {
+
+    /**
+     * Adds a listener which is executed after completion(success,failure,cancellation).If the future has been
+     * completed,the listener is executed immediately.
+     *
+     * @param listener is a callback runnable
+     * @param executor is executor to run listener,if null,listener runs in the thread completing the future
+     */
+    void addListener(Runnable listener, Executor executor);
+}
@@ -9,6 +9,8 @@
  */
 package org.stone.beecp;
 
+import java.util.Map;
+
 /**
  * Pool monitor object interface.
  *
@@ -47,4 +49,16 @@ public interface BeeConnectionPoolMonitorVo {
 
     boolean isCreatingTimeout();
 
+    //percentiles of borrowing phases(nanoseconds),key format:phase.percentile,such as:semaphoreWait.p99
+    Map<String, Long> getBorrowLatencyPercentiles();
+
+    //hit rate of thread local cache(hits/borrows),zero if borrow latency statistics disabled
+    double getThreadLocalHitRate();
+
+    //average hold time(milliseconds) of returned connections
+    long getAverageHoldTime();
+
+    //top borrow sites(sampled) of long holders,value is max hold time(milliseconds)
+    Map<String, Long> getLongHoldingSites();
+
 }
@@ -23,6 +23,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.logging.Logger;
 
@@ -43,6 +44,8 @@ import static org.stone.tools.BeanUtil.createClassInstance;
 public class BeeDataSource extends BeeDataSourceConfig implements DataSource, XADataSource {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+    private final AtomicInteger scopeCount = new AtomicInteger();//count of active connection scopes
+    private final ThreadLocal<ConnectionScope> scopeLocal = new ThreadLocal<>();//removed on scope exit
     private long maxWaitNanos = SECONDS.toNanos(8);//default vale same to config
     private BeeConnectionPool pool;
     private CommonDataSource subDs;//used to set loginTimeout
@@ -94,6 +97,10 @@ public class BeeDataSource extends BeeDataSourceConfig implements DataSource, XA
     //                                          2: below are override methods(11)                                    //
     //***************************************************************************************************************//
     public final Connection getConnection() throws SQLException {
+        if (this.scopeCount.get() > 0) {//share connection in scope of current thread
+            ConnectionScope scope = this.scopeLocal.get();
+            if (scope != null) return scope.getSharedConnection();
+        }
         if (this.ready) return pool.getConnection();
         return createPoolByLock().getConnection();
     }
@@ -103,6 +110,21 @@ public class BeeDataSource extends BeeDataSourceConfig implements DataSource, XA
         return createPoolByLock().getXAConnection();
     }
 
+    public final BeeConnectionFuture<Connection> getConnectionAsync() throws SQLException {
+        return getAsyncPool().getConnectionAsync();
+    }
+
+    public final BeeConnectionFuture<XAConnection> getXAConnectionAsync() throws SQLException {
+        return getAsyncPool().getXAConnectionAsync();
+    }
+
+    //async borrowing is optional for pool implementations
+    private BeeAsyncConnectionPool getAsyncPool() throws SQLException {
+        BeeConnectionPool pool = this.ready ? this.pool : createPoolByLock();
+        if (pool instanceof BeeAsyncConnectionPool) return (BeeAsyncConnectionPool) pool;
+        throw new SQLFeatureNotSupportedException("Pool implementation not support async borrowing:" + pool.getClass().getName());
+    }
+
     private BeeConnectionPool createPoolByLock() throws SQLException {
         if (!lock.isWriteLocked() && lock.writeLock().tryLock()) {
             try {
@@ -177,8 +199,48 @@ public class BeeDataSource extends BeeDataSourceConfig implements DataSource, XA
     }
 
     //***************************************************************************************************************//
-    //                                     3: below are self-define methods(7)                                       //
+    //                                     3: below are self-define methods(8)                                       //
     //***************************************************************************************************************//
+
+    /**
+     * Borrows a connection and works on it in a scope,{@code getConnection} calls of this data source in callback
+     * (include nested DAO calls and nested scopes) share the scoped connection without borrowing from pool again,
+     * the connection is returned to pool once on scope exit.
+     *
+     * @param callback to work on scoped connection
+     * @param <T>      is type of result
+     * @return result of callback
+     * @throws SQLException when failed to borrow a connection or error occurs in callback
+     */
+    public <T> T withConnection(BeeConnectionCallback<T> callback) throws SQLException {
+        ConnectionScope scope = this.scopeLocal.get();
+        if (scope != null) return callback.call(scope.getSharedConnection());//nested scope
+
+        Connection con = this.getConnection();
+        scope = new ConnectionScope(con);
+        this.scopeLocal.set(scope);
+        this.scopeCount.incrementAndGet();
+        Throwable failure = null;
+        try {
+            return callback.call(scope.getSharedConnection());//closing by callback not return connection in scope
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            this.scopeCount.decrementAndGet();
+            this.scopeLocal.remove();
+            if (failure == null) {
+                con.close();
+            } else {
+                try {
+                    con.close();
+                } catch (SQLException e) {
+                    failure.addSuppressed(e);//keep exception of callback
+                }
+            }
+        }
+    }
+
     public boolean isClosed() {
         return this.pool == null || this.pool.isClosed();
     }
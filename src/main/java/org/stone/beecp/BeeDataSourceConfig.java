@@ -69,6 +69,38 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
     private int maxActive = Math.min(Math.max(10, NCPU), 50);
     //max permit size of pool semaphore,its original value is calculated with an expression
     private int borrowSemaphoreSize = Math.min(this.maxActive / 2, NCPU);
+    //an indicator to use a cas permit counter(spin then park) as pool semaphore,it is not fair,so not allowed in fair mode,default is false(AQS semaphore)
+    private boolean enableCasSemaphore;
+    //an indicator to adjust permits of cas semaphore with creation latency and wait queue depth,{@code borrowSemaphoreSize} is its min size,default is false
+    private boolean enableAdaptiveSemaphore;
+    //max size of connections in creating at same time,creations run out of pool lock when it is greater than 1,default is 1(serial creation under pool lock)
+    private int parallelCreationSize = 1;
+    //max size of connections created in a batch by servant thread for waiters,batch size is computed from waiting depth and free capacity,capped by {@code parallelCreationSize},default is 1(servant creates one by one)
+    private int servantCreationFanOut = 1;
+    //an indicator to count idle size and waiting size by scanning pool,default is false(read from maintained counters)
+    private boolean enableExactMonitorScan;
+    //an indicator to record latency histograms of borrowing phases(threadLocal hit,semaphore wait,search,creation,transfer wait),default is false
+    private boolean enableBorrowLatencyStatistics;
+    //an indicator to record hold time of borrowed connections(from borrowing to return),default is false
+    private boolean enableHoldTimeStatistics;
+    //average interval of borrowing to capture a stack of borrower for hold time statistics and leak reports,default is zero(no capture)
+    private int borrowStackSampleInterval;
+    //a threshold on hold time to report borrowed connections as leak,time unit:milliseconds,default is zero(no detection)
+    private long leakDetectionThreshold;
+    //max size of prepared statement cache on each pooled connection,default is zero(no cache)
+    private int preparedStatementCacheSize;
+    //an indicator to defer property resets(autoCommit,isolation,readOnly,catalog,schema,networkTimeout) from return to next borrowing,default is false
+    private boolean enableLazyReset;
+    //an indicator to clear warnings of connections on return always,set false to clear only when borrowers got warnings from connections
+    private boolean forceClearWarnings = true;
+    //milliseconds:interval of background alive test on idle connections near assume time,zero means disabled
+    private long aliveTestInterval;
+    //size of concurrent alive tests on idle connections,more than 1 means bulk mode(idle scan also tests idle connections reached assume time)
+    private int aliveTestConcurrency;
+    //an indicator to check idle timeout and hold timeout of connections on a timing wheel by their deadlines
+    private boolean enableTimingWheel;
+    //milliseconds:tick time of timing wheel,which is precision of timeout checks
+    private long timingWheelTickTime = 1000L;
 
     //milliseconds: max wait time for borrowers in pool for a released connection,default is 8000 milliseconds(8 seconds)
     //pool supports four kind of timeout:semaphore timeout,lock timeout,waitQueue timeout,creation timeout
@@ -110,6 +142,12 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
 
     //an indicator to use thread local cache or not(set false to support virtual threads)
     private boolean enableThreadLocal = true;
+    //size of recently used connections cached in thread local per borrower(threads holding multiple connections at once)
+    private int threadLocalCacheSize = 1;
+    //an indicator to borrow in virtual thread mode(thread local disabled,last borrowed connections kept in a bounded affinity cache)
+    private boolean enableVirtualThreadMode;
+    //an indicator to index idle connections in stripes keyed with thread hash,default is false(borrowers scan connections array)
+    private boolean enableStripedIdleIndex;
     //an indicator to set initial value to catalog property after connections are created
     private boolean enableDefaultOnCatalog = true;
     //an indicator to set initial value to schema property after connections are created
@@ -153,6 +191,16 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
     //eviction predicate class name
     private String evictPredicateClassName;
 
+    /**
+     * customized alive test on connections,if not set,then test with {@code Connection.isValid} or alive test sql
+     */
+    //alive test
+    private BeeConnectionAliveTest aliveTest;
+    //alive test class
+    private Class<? extends BeeConnectionAliveTest> aliveTestClass;
+    //alive test class name
+    private String aliveTestClassName;
+
     /**
      * A short lifecycle object and used to decode jdbc link info(url,username,password)in pool initialization check
      */
@@ -303,6 +351,134 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
         if (borrowSemaphoreSize > 0) this.borrowSemaphoreSize = borrowSemaphoreSize;
     }
 
+    public boolean isEnableCasSemaphore() {
+        return enableCasSemaphore;
+    }
+
+    public void setEnableCasSemaphore(boolean enableCasSemaphore) {
+        this.enableCasSemaphore = enableCasSemaphore;
+    }
+
+    public boolean isEnableAdaptiveSemaphore() {
+        return enableAdaptiveSemaphore;
+    }
+
+    public void setEnableAdaptiveSemaphore(boolean enableAdaptiveSemaphore) {
+        this.enableAdaptiveSemaphore = enableAdaptiveSemaphore;
+    }
+
+    public int getParallelCreationSize() {
+        return parallelCreationSize;
+    }
+
+    public void setParallelCreationSize(int parallelCreationSize) {
+        if (parallelCreationSize > 0) this.parallelCreationSize = parallelCreationSize;
+    }
+
+    public int getServantCreationFanOut() {
+        return servantCreationFanOut;
+    }
+
+    public void setServantCreationFanOut(int servantCreationFanOut) {
+        if (servantCreationFanOut > 0) this.servantCreationFanOut = servantCreationFanOut;
+    }
+
+    public boolean isEnableExactMonitorScan() {
+        return enableExactMonitorScan;
+    }
+
+    public void setEnableExactMonitorScan(boolean enableExactMonitorScan) {
+        this.enableExactMonitorScan = enableExactMonitorScan;
+    }
+
+    public boolean isEnableBorrowLatencyStatistics() {
+        return enableBorrowLatencyStatistics;
+    }
+
+    public void setEnableBorrowLatencyStatistics(boolean enableBorrowLatencyStatistics) {
+        this.enableBorrowLatencyStatistics = enableBorrowLatencyStatistics;
+    }
+
+    public boolean isEnableHoldTimeStatistics() {
+        return enableHoldTimeStatistics;
+    }
+
+    public void setEnableHoldTimeStatistics(boolean enableHoldTimeStatistics) {
+        this.enableHoldTimeStatistics = enableHoldTimeStatistics;
+    }
+
+    public int getBorrowStackSampleInterval() {
+        return borrowStackSampleInterval;
+    }
+
+    public void setBorrowStackSampleInterval(int borrowStackSampleInterval) {
+        if (borrowStackSampleInterval >= 0) this.borrowStackSampleInterval = borrowStackSampleInterval;
+    }
+
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    public void setLeakDetectionThreshold(long leakDetectionThreshold) {
+        if (leakDetectionThreshold >= 0L) this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
+    public void setPreparedStatementCacheSize(int preparedStatementCacheSize) {
+        if (preparedStatementCacheSize >= 0) this.preparedStatementCacheSize = preparedStatementCacheSize;
+    }
+
+    public boolean isEnableLazyReset() {
+        return enableLazyReset;
+    }
+
+    public void setEnableLazyReset(boolean enableLazyReset) {
+        this.enableLazyReset = enableLazyReset;
+    }
+
+    public boolean isForceClearWarnings() {
+        return forceClearWarnings;
+    }
+
+    public void setForceClearWarnings(boolean forceClearWarnings) {
+        this.forceClearWarnings = forceClearWarnings;
+    }
+
+    public long getAliveTestInterval() {
+        return aliveTestInterval;
+    }
+
+    public void setAliveTestInterval(long aliveTestInterval) {
+        if (aliveTestInterval >= 0L) this.aliveTestInterval = aliveTestInterval;
+    }
+
+    public int getAliveTestConcurrency() {
+        return aliveTestConcurrency;
+    }
+
+    public void setAliveTestConcurrency(int aliveTestConcurrency) {
+        if (aliveTestConcurrency >= 0) this.aliveTestConcurrency = aliveTestConcurrency;
+    }
+
+    public boolean isEnableTimingWheel() {
+        return enableTimingWheel;
+    }
+
+    public void setEnableTimingWheel(boolean enableTimingWheel) {
+        this.enableTimingWheel = enableTimingWheel;
+    }
+
+    public long getTimingWheelTickTime() {
+        return timingWheelTickTime;
+    }
+
+    public void setTimingWheelTickTime(long timingWheelTickTime) {
+        if (timingWheelTickTime > 0L) this.timingWheelTickTime = timingWheelTickTime;
+    }
+
     public long getMaxWait() {
         return this.maxWait;
     }
@@ -458,6 +634,30 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
         this.enableThreadLocal = enableThreadLocal;
     }
 
+    public int getThreadLocalCacheSize() {
+        return threadLocalCacheSize;
+    }
+
+    public void setThreadLocalCacheSize(int threadLocalCacheSize) {
+        if (threadLocalCacheSize > 0) this.threadLocalCacheSize = threadLocalCacheSize;
+    }
+
+    public boolean isEnableVirtualThreadMode() {
+        return enableVirtualThreadMode;
+    }
+
+    public void setEnableVirtualThreadMode(boolean enableVirtualThreadMode) {
+        this.enableVirtualThreadMode = enableVirtualThreadMode;
+    }
+
+    public boolean isEnableStripedIdleIndex() {
+        return enableStripedIdleIndex;
+    }
+
+    public void setEnableStripedIdleIndex(boolean enableStripedIdleIndex) {
+        this.enableStripedIdleIndex = enableStripedIdleIndex;
+    }
+
     //****************************************************************************************************************//
     //                                     4: connection default value set methods(12)                                //
     //****************************************************************************************************************//
@@ -631,6 +831,30 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
         this.evictPredicate = evictPredicate;
     }
 
+    public Class<? extends BeeConnectionAliveTest> getAliveTestClass() {
+        return aliveTestClass;
+    }
+
+    public void setAliveTestClass(Class<? extends BeeConnectionAliveTest> aliveTestClass) {
+        this.aliveTestClass = aliveTestClass;
+    }
+
+    public String getAliveTestClassName() {
+        return aliveTestClassName;
+    }
+
+    public void setAliveTestClassName(String aliveTestClassName) {
+        this.aliveTestClassName = trimString(aliveTestClassName);
+    }
+
+    public BeeConnectionAliveTest getAliveTest() {
+        return aliveTest;
+    }
+
+    public void setAliveTest(BeeConnectionAliveTest aliveTest) {
+        this.aliveTest = aliveTest;
+    }
+
     public Class<? extends BeeJdbcLinkInfoDecoder> getJdbcLinkInfoDecoderClass() {
         return this.jdbcLinkInfoDecoderClass;
     }
@@ -811,6 +1035,8 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
     public BeeDataSourceConfig check() throws SQLException {
         if (initialSize > maxActive)
             throw new BeeDataSourceConfigException("initialSize must not be greater than maxActive");
+        if (fairMode && enableCasSemaphore)
+            throw new BeeDataSourceConfigException("Cas semaphore is not fair,it can't be enabled in fair mode");
         if (!aliveTestSql.toUpperCase(Locale.US).startsWith("SELECT ")) {
             //fix issue:#1 The check of validationQuerySQL has logic problem. Chris-2019-05-01 end
             throw new BeeDataSourceConfigException("Alive test sql must be start with 'select '");
@@ -818,6 +1044,7 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
 
         Object connectionFactory = createConnectionFactory();
         BeeConnectionPredicate predicate = this.createConnectionEvictPredicate();
+        BeeConnectionAliveTest aliveTest = this.createConnectionAliveTest();
 
         BeeDataSourceConfig checkedConfig = new BeeDataSourceConfig();
         copyTo(checkedConfig);
@@ -835,6 +1062,7 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
         this.connectionFactory = connectionFactory;
         checkedConfig.connectionFactory = connectionFactory;
         checkedConfig.evictPredicate = predicate;
+        checkedConfig.aliveTest = aliveTest;
         if (isBlank(checkedConfig.poolName)) checkedConfig.poolName = "FastPool-" + PoolNameIndex.getAndIncrement();
         if (checkedConfig.printConfigInfo) printConfiguration(checkedConfig);
 
@@ -1062,6 +1290,29 @@ public class BeeDataSourceConfig implements BeeDataSourceConfigMBean {
         return null;
     }
 
+    //create alive test
+    private BeeConnectionAliveTest createConnectionAliveTest() throws BeeDataSourceConfigException {
+        //step1:if exists alive test,then return it
+        if (this.aliveTest != null) return this.aliveTest;
+
+        //step2: create alive test
+        if (aliveTestClass != null || isNotBlank(aliveTestClassName)) {
+            Class<?> testClass = null;
+            try {
+                testClass = aliveTestClass != null ? aliveTestClass : Class.forName(aliveTestClassName);
+                return (BeeConnectionAliveTest) createClassInstance(testClass, BeeConnectionAliveTest.class, "connection alive test");
+            } catch (ClassNotFoundException e) {
+                throw new BeeDataSourceConfigException("Not found connection alive test class[" + aliveTestClassName + "]", e);
+            } catch (BeeDataSourceConfigException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new BeeDataSourceConfigException("Failed to create connection alive test with class[" + testClass + "]", e);
+            }
+        }
+
+        return null;
+    }
+
     //print check passed configuration
     private void printConfiguration(BeeDataSourceConfig config) {
         String poolName = config.poolName;
@@ -0,0 +1,121 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+
+/**
+ * A scope on a borrowed connection,connections got in scope are shared views on the scoped connection,
+ * closing of views not return the scoped connection to pool.Statements,metadata and result sets made on a view
+ * are wrapped too,so their {@code getConnection()} return the view rather than the scoped connection.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class ConnectionScope {
+    private final Connection con;
+
+    ConnectionScope(Connection con) {
+        this.con = con;
+    }
+
+    //create a shared view,which can be closed by borrower
+    Connection getSharedConnection() {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionScope.class.getClassLoader(),
+                new Class[]{Connection.class},
+                new SharedConnectionHandler(this.con));
+    }
+
+    private static final class SharedConnectionHandler implements InvocationHandler {
+        private final Connection con;
+        private boolean isClosed;
+
+        SharedConnectionHandler(Connection con) {
+            this.con = con;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            if ("close".equals(methodName)) {
+                this.isClosed = true;//scoped connection is closed on scope exit
+                return null;
+            } else if ("isClosed".equals(methodName)) {
+                return this.isClosed || this.con.isClosed();
+            } else if ("toString".equals(methodName)) {
+                return this.con.toString();
+            } else if ("hashCode".equals(methodName)) {
+                return System.identityHashCode(proxy);
+            } else if ("equals".equals(methodName)) {
+                return proxy == args[0];
+            } else if (this.isClosed) {
+                throw new SQLException("No operations allowed after connection closed");
+            }
+
+            Object result = invokeTarget(this.con, method, args);
+            if (result instanceof Statement || result instanceof DatabaseMetaData)
+                return wrapChild(result, method.getReturnType(), (Connection) proxy, null);
+            return result;
+        }
+    }
+
+    //wrap an object made on a view with its declared interface
+    private static Object wrapChild(Object target, Class<?> type, Connection view, Statement statementView) {
+        if (!type.isInterface()) return target;
+        return Proxy.newProxyInstance(
+                ConnectionScope.class.getClassLoader(),
+                new Class[]{type},
+                new ChildHandler(target, view, statementView));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    //handler on statements,metadata and result sets of a view
+    private static final class ChildHandler implements InvocationHandler {
+        private final Object target;
+        private final Connection view;
+        private final Statement statementView;//statement view of a result set,null for others
+
+        ChildHandler(Object target, Connection view, Statement statementView) {
+            this.target = target;
+            this.view = view;
+            this.statementView = statementView;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            boolean noArgs = args == null || args.length == 0;
+            if ("getConnection".equals(methodName) && noArgs) {
+                return this.view;
+            } else if ("getStatement".equals(methodName) && noArgs && this.statementView != null) {
+                return this.statementView;
+            } else if ("hashCode".equals(methodName) && noArgs) {
+                return System.identityHashCode(proxy);
+            } else if ("equals".equals(methodName) && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+
+            Object result = invokeTarget(this.target, method, args);
+            if (result instanceof ResultSet)
+                return wrapChild(result, method.getReturnType(), this.view, proxy instanceof Statement ? (Statement) proxy : null);
+            return result;
+        }
+    }
+}
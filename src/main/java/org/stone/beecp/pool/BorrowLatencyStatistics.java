@@ -0,0 +1,117 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.pool;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histograms of borrowing phases,each histogram has fixed buckets in powers of two(nanoseconds),so recording
+ * is allocation-free and percentiles are upper bounds of buckets.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class BorrowLatencyStatistics {
+    static final int PHASE_THREAD_LOCAL_HIT = 0;
+    static final int PHASE_SEMAPHORE_WAIT = 1;
+    static final int PHASE_SEARCH = 2;//creation time included if a connection created in search
+    static final int PHASE_CREATION = 3;
+    static final int PHASE_TRANSFER_WAIT = 4;
+    private static final String[] PHASE_NAMES = {"threadLocalHit", "semaphoreWait", "search", "creation", "transferWait"};
+    private static final double[] PERCENTILES = {0.5D, 0.9D, 0.99D, 0.999D};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final LatencyHistogram[] histograms;
+
+    BorrowLatencyStatistics() {
+        this.histograms = new LatencyHistogram[PHASE_NAMES.length];
+        for (int i = 0; i < PHASE_NAMES.length; i++)
+            this.histograms[i] = new LatencyHistogram();
+    }
+
+    /**
+     * records elapsed time of a phase
+     *
+     * @param phase     is one of phase constants
+     * @param startTime is start time of phase(nanoseconds)
+     */
+    void record(int phase, long startTime) {
+        this.histograms[phase].record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * gets percentiles of all phases,key format:phase name + '.' + percentile name(p50,p90,p99,p999,max,count)
+     *
+     * @return a map of percentiles(nanoseconds)
+     */
+    Map<String, Long> getPercentiles() {
+        Map<String, Long> percentileMap = new LinkedHashMap<>(PHASE_NAMES.length * 8);
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            LatencyHistogram histogram = this.histograms[i];
+            String phaseName = PHASE_NAMES[i];
+            long count = histogram.getCount();
+            for (int j = 0; j < PERCENTILES.length; j++)
+                percentileMap.put(phaseName + "." + PERCENTILE_NAMES[j], histogram.getPercentile(PERCENTILES[j], count));
+            percentileMap.put(phaseName + ".max", histogram.getMax());
+            percentileMap.put(phaseName + ".count", count);
+        }
+        return percentileMap;
+    }
+
+    /**
+     * gets hit rate of thread local cache,borrowers missed in cache acquire semaphore,so count of borrowing is
+     * sum of hit count and semaphore acquisition count
+     *
+     * @return a rate in range[0,1]
+     */
+    double getThreadLocalHitRate() {
+        long hitCount = this.histograms[PHASE_THREAD_LOCAL_HIT].getCount();
+        long totalCount = hitCount + this.histograms[PHASE_SEMAPHORE_WAIT].getCount();
+        return totalCount > 0L ? (double) hitCount / totalCount : 0D;
+    }
+
+    //histogram with 64 buckets,bucket i holds values in range[2^(i-1),2^i - 1]
+    private static final class LatencyHistogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long value) {
+            if (value < 0L) value = 0L;
+            this.buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+            long curMax;
+            while (value > (curMax = this.max.get()) && !this.max.compareAndSet(curMax, value)) ;
+        }
+
+        long getCount() {
+            long count = 0L;
+            for (int i = 0, l = this.buckets.length(); i < l; i++)
+                count += this.buckets.get(i);
+            return count;
+        }
+
+        long getMax() {
+            return this.max.get();
+        }
+
+        long getPercentile(double percentile, long count) {
+            if (count == 0L) return 0L;
+            long target = (long) Math.ceil(count * percentile);
+            long accumulated = 0L;
+            for (int i = 0, l = this.buckets.length(); i < l; i++) {
+                accumulated += this.buckets.get(i);
+                if (accumulated >= target) return Math.min(i == 0 ? 0L : (1L << i) - 1L, this.max.get());
+            }
+            return this.max.get();
+        }
+    }
+}
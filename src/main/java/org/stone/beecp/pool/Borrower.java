@@ -16,7 +16,38 @@ package org.stone.beecp.pool;
  * @version 1.0
  */
 final class Borrower {
+    private static final PooledConnection[] EMPTY_CACHE = new PooledConnection[0];
     final Thread thread = Thread.currentThread();
+    final ConnectionFuture future;//not null when borrow in async mode
+    final PooledConnection[] usedCache;//recently used connections,empty when not cached in thread local
     volatile Object state;
-    PooledConnection lastUsed;
+    BorrowerWaitQueue.Node waitNode;//node in wait queue,removed by it
+    private int usedCursor;//next position to be replaced in cache
+
+    Borrower() {
+        this.future = null;
+        this.usedCache = EMPTY_CACHE;
+    }
+
+    Borrower(int cacheSize) {
+        this.future = null;
+        this.usedCache = new PooledConnection[cacheSize];
+    }
+
+    Borrower(ConnectionFuture future) {
+        this.future = future;
+        this.usedCache = EMPTY_CACHE;
+    }
+
+    //put a borrowed connection to cache,the eldest one is replaced when cache full
+    void setLastUsed(PooledConnection p) {
+        PooledConnection[] cache = this.usedCache;
+        int size = cache.length;
+        if (size == 0) return;
+        for (PooledConnection cached : cache)
+            if (cached == p) return;
+
+        cache[this.usedCursor] = p;
+        if (++this.usedCursor == size) this.usedCursor = 0;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import org.stone.tools.atomic.IntegerFieldUpdaterImpl;
+import org.stone.tools.atomic.ReferenceFieldUpdaterImpl;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A lock-free FIFO queue of waiters for transferred connections.Each borrower keeps its node,so removal is O(1)
+ * by marking node as removed(tombstone),removed nodes are unlinked by iterations from head,then hand-off to
+ * first waiter is O(1) as head is always near to a live waiter.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class BorrowerWaitQueue implements Iterable<Borrower> {
+    private static final AtomicReferenceFieldUpdater<BorrowerWaitQueue, Node> HeadUpd = ReferenceFieldUpdaterImpl.newUpdater(BorrowerWaitQueue.class, Node.class, "head");
+    private static final AtomicReferenceFieldUpdater<BorrowerWaitQueue, Node> TailUpd = ReferenceFieldUpdaterImpl.newUpdater(BorrowerWaitQueue.class, Node.class, "tail");
+    private static final AtomicReferenceFieldUpdater<Node, Node> NextUpd = ReferenceFieldUpdaterImpl.newUpdater(Node.class, Node.class, "next");
+    private static final AtomicIntegerFieldUpdater<Node> RemovedUpd = IntegerFieldUpdaterImpl.newUpdater(Node.class, "removed");
+
+    private volatile Node head;//a dummy node,its next is first node in queue
+    private volatile Node tail;
+
+    BorrowerWaitQueue() {
+        this.head = this.tail = new Node(null);
+    }
+
+    //put a borrower to tail of queue
+    void offer(Borrower b) {
+        Node node = new Node(b);
+        b.waitNode = node;
+
+        for (Node t = this.tail, p = t; ; ) {
+            Node n = p.next;
+            if (n == null) {
+                if (NextUpd.compareAndSet(p, null, node)) {
+                    if (p != t) TailUpd.compareAndSet(this, t, node);//tail may lag one node
+                    return;
+                }
+            } else {
+                p = (t != (t = this.tail)) ? t : n;//re-read tail if changed,otherwise step forward
+            }
+        }
+    }
+
+    //mark node of a borrower as removed,return true if marked by current call
+    boolean remove(Borrower b) {
+        Node node = b.waitNode;
+        if (node == null || !RemovedUpd.compareAndSet(node, 0, 1)) return false;
+        b.waitNode = null;//not retain nodes linked after it
+        this.first();//unlink removed nodes from head
+        return true;
+    }
+
+    boolean isEmpty() {
+        return this.first() == null;
+    }
+
+    public Iterator<Borrower> iterator() {
+        return new Itr(this.first());
+    }
+
+    //first live node,removed nodes before it are unlinked by moving head
+    private Node first() {
+        for (; ; ) {
+            Node h = this.head;
+            Node n = h.next;
+            if (n == null || n.removed == 0) return n;
+            HeadUpd.compareAndSet(this, h, n);//removed node becomes new dummy head
+        }
+    }
+
+    //next live node after a node,removed nodes between them are unlinked(not the last one,which may be linked by offer)
+    private static Node nextLive(Node p) {
+        Node n = p.next;
+        while (n != null && n.removed == 1) {
+            Node nn = n.next;
+            if (nn == null) return null;
+            NextUpd.compareAndSet(p, n, nn);
+            n = nn;
+        }
+        return n;
+    }
+
+    static final class Node {
+        final Borrower borrower;
+        volatile Node next;
+        volatile int removed;//1:removed
+
+        Node(Borrower borrower) {
+            this.borrower = borrower;
+        }
+    }
+
+    private static final class Itr implements Iterator<Borrower> {
+        private Node node;
+
+        Itr(Node first) {
+            this.node = first;
+        }
+
+        public boolean hasNext() {
+            return this.node != null;
+        }
+
+        public Borrower next() {
+            Node cur = this.node;
+            if (cur == null) throw new NoSuchElementException();
+            this.node = nextLive(cur);
+            return cur.borrower;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+}
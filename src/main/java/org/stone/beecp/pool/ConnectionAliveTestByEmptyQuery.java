@@ -0,0 +1,41 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.pool;
+
+import org.stone.beecp.BeeConnectionAliveTest;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.stone.beecp.pool.ConnectionPoolStatics.oclose;
+
+/**
+ * Connection alive test by executing an empty query,PostgreSQL server answers it without parsing and planning,
+ * so it is cheaper than a test sql({@code SELECT 1}).A rollback is executed only when connection is not in
+ * auto-commit mode.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public final class ConnectionAliveTestByEmptyQuery implements BeeConnectionAliveTest {
+
+    public boolean isAlive(Connection con, int timeout) throws SQLException {
+        Statement st = con.createStatement();
+        try {
+            if (timeout > 0) st.setQueryTimeout(timeout);
+            st.execute("");
+        } finally {
+            oclose(st);
+        }
+        if (!con.getAutoCommit()) con.rollback();//end transaction started by query
+        return true;
+    }
+}
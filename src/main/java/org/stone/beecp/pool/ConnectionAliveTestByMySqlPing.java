@@ -0,0 +1,78 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.pool;
+
+import org.stone.beecp.BeeConnectionAliveTest;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Connection alive test with native ping method({@code pingInternal}) of MySQL connections,a ping packet is sent to
+ * server without sql parsing and executing.Connection classes of driver are resolved by reflection on first test,
+ * so MySQL driver is not a dependency of pool.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public final class ConnectionAliveTestByMySqlPing implements BeeConnectionAliveTest {
+    //connection interfaces of Connector/J 8.x and 5.1.x
+    private static final String[] MYSQL_CONNECTION_CLASS_NAMES = {"com.mysql.cj.jdbc.JdbcConnection", "com.mysql.jdbc.MySQLConnection"};
+    private static final String PING_METHOD_NAME = "pingInternal";
+    private final String[] connectionClassNames;
+    private volatile Class<?> connectionClass;
+    private volatile Method pingMethod;
+
+    public ConnectionAliveTestByMySqlPing() {
+        this(MYSQL_CONNECTION_CLASS_NAMES);
+    }
+
+    ConnectionAliveTestByMySqlPing(String... connectionClassNames) {
+        this.connectionClassNames = connectionClassNames;
+    }
+
+    public boolean isAlive(Connection con, int timeout) throws SQLException {
+        Method method = this.pingMethod;
+        if (method == null) method = this.resolvePingMethod(con);
+
+        try {
+            method.invoke(con.unwrap(this.connectionClass), Boolean.TRUE, timeout * 1000);
+            return true;
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) throw (SQLException) cause;
+            throw new SQLException(cause);
+        } catch (IllegalAccessException e) {
+            throw new SQLException(e);
+        }
+    }
+
+    //resolve ping method from connection classes in class loader of driver
+    private synchronized Method resolvePingMethod(Connection con) throws SQLException {
+        if (this.pingMethod != null) return this.pingMethod;
+
+        ClassLoader classLoader = con.getClass().getClassLoader();
+        for (String className : this.connectionClassNames) {
+            try {
+                Class<?> clazz = Class.forName(className, false, classLoader);
+                Method method = clazz.getMethod(PING_METHOD_NAME, boolean.class, int.class);
+                this.connectionClass = clazz;
+                this.pingMethod = method;
+                return method;
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                //try next class
+            }
+        }
+        throw new SQLException("Not found method '" + PING_METHOD_NAME + "' in MySQL connection classes" + Arrays.toString(this.connectionClassNames));
+    }
+}
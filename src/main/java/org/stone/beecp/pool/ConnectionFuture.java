@@ -0,0 +1,133 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.pool;
+
+import org.stone.beecp.BeeConnectionFuture;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.stone.tools.BeanUtil.CommonLog;
+
+/**
+ * Future implementation of asynchronous borrowing
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class ConnectionFuture<T> implements BeeConnectionFuture<T> {
+    final boolean xa;
+    private final FastConnectionPool pool;
+    private final CountDownLatch doneLatch = new CountDownLatch(1);
+    Borrower borrower;//set when waiting in queue
+    volatile ScheduledFuture<?> timeoutTask;
+
+    private volatile boolean done;
+    private boolean cancelled;
+    private T result;
+    private Throwable cause;
+    private List<Object[]> listeners;
+
+    ConnectionFuture(FastConnectionPool pool, boolean xa) {
+        this.pool = pool;
+        this.xa = xa;
+    }
+
+    //***************************************************************************************************************//
+    //                                       1: completion methods(call by pool)                                     //
+    //***************************************************************************************************************//
+    boolean complete(Object result) {
+        return this.setDone((T) result, null, false);
+    }
+
+    boolean fail(Throwable cause) {
+        return this.setDone(null, cause, false);
+    }
+
+    boolean setCancelled() {
+        return this.setDone(null, new CancellationException(), true);
+    }
+
+    private boolean setDone(T result, Throwable cause, boolean cancelled) {
+        List<Object[]> doneListeners;
+        synchronized (this) {
+            if (this.done) return false;
+            this.result = result;
+            this.cause = cause;
+            this.cancelled = cancelled;
+            this.done = true;
+            doneListeners = this.listeners;
+            this.listeners = null;
+        }
+        this.doneLatch.countDown();
+        if (this.timeoutTask != null) this.timeoutTask.cancel(false);
+        if (doneListeners != null) {
+            for (Object[] listener : doneListeners)
+                execute((Runnable) listener[0], (Executor) listener[1]);
+        }
+        return true;
+    }
+
+    private static void execute(Runnable listener, Executor executor) {
+        try {
+            if (executor != null) {
+                executor.execute(listener);
+            } else {
+                listener.run();
+            }
+        } catch (Throwable e) {
+            CommonLog.warn("Failed to execute listener of connection future", e);
+        }
+    }
+
+    //***************************************************************************************************************//
+    //                                       2: future methods                                                       //
+    //***************************************************************************************************************//
+    public void addListener(Runnable listener, Executor executor) {
+        if (listener == null) throw new NullPointerException();
+        synchronized (this) {
+            if (!this.done) {
+                if (this.listeners == null) this.listeners = new LinkedList<>();
+                this.listeners.add(new Object[]{listener, executor});
+                return;
+            }
+        }
+        execute(listener, executor);
+    }
+
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return this.borrower != null && this.pool.cancelAsyncBorrower(this.borrower);
+    }
+
+    public boolean isCancelled() {
+        return this.done && this.cancelled;
+    }
+
+    public boolean isDone() {
+        return this.done;
+    }
+
+    public T get() throws InterruptedException, ExecutionException {
+        this.doneLatch.await();
+        return this.getResult();
+    }
+
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!this.doneLatch.await(timeout, unit)) throw new TimeoutException();
+        return this.getResult();
+    }
+
+    private T getResult() throws ExecutionException {
+        if (this.cancelled) throw (CancellationException) this.cause;
+        if (this.cause != null) throw new ExecutionException(this.cause);
+        return this.result;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.pool;
+
+import org.stone.beecp.BeeDataSource;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.stone.beecp.pool.ConnectionPoolStatics.CON_USING;
+
+/**
+ * Statistics on hold time of borrowed connections(from borrowing to return).Borrow sites are picked from stacks
+ * sampled on borrowing,hold times are aggregated by sites to find out long holders.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class ConnectionHoldStatistics {
+    private static final int MAX_SITE_SIZE = 1024;
+    private static final String OTHER_SITES = "others";
+    private static final Set<String> POOL_CLASS_NAMES = new HashSet<>(Arrays.asList(
+            ConnectionHoldStatistics.class.getName(),
+            FastConnectionPool.class.getName(),
+            BeeDataSource.class.getName()));
+
+    private final int topSize;
+    private final AtomicLong holdCount = new AtomicLong();
+    private final AtomicLong holdTotalTime = new AtomicLong();//nanoseconds
+    private final ConcurrentHashMap<String, SiteHoldTime> siteMap = new ConcurrentHashMap<>(16);
+
+    ConnectionHoldStatistics(int topSize) {
+        this.topSize = topSize;
+    }
+
+    //first stack frame out of pool classes
+    static String getBorrowSite(Throwable borrowStack) {
+        for (StackTraceElement element : borrowStack.getStackTrace()) {
+            if (!POOL_CLASS_NAMES.contains(element.getClassName()))
+                return element.toString();
+        }
+        return OTHER_SITES;
+    }
+
+    //call on connection return
+    void onReturned(PooledConnection p) {
+        long holdTime = System.nanoTime() - p.borrowTime;
+        this.holdCount.incrementAndGet();
+        this.holdTotalTime.addAndGet(holdTime);
+
+        Throwable borrowStack = p.borrowStack;
+        if (borrowStack != null) {
+            String site = getBorrowSite(borrowStack);
+            SiteHoldTime siteHoldTime = this.siteMap.get(site);
+            if (siteHoldTime == null) {
+                if (this.siteMap.size() >= MAX_SITE_SIZE) site = OTHER_SITES;
+                siteHoldTime = new SiteHoldTime();
+                SiteHoldTime existed = this.siteMap.putIfAbsent(site, siteHoldTime);
+                if (existed != null) siteHoldTime = existed;
+            }
+            siteHoldTime.record(holdTime);
+        }
+    }
+
+    //average hold time of returned connections(milliseconds)
+    long getAverageHoldTime() {
+        long count = this.holdCount.get();
+        return count > 0L ? TimeUnit.NANOSECONDS.toMillis(this.holdTotalTime.get() / count) : 0L;
+    }
+
+    /**
+     * gets top sites of long holders,max hold time of a site includes connections still in using
+     *
+     * @param array is pool array to find connections in using
+     * @return a map,key is borrow site,value is max hold time(milliseconds),sorted in descending order
+     */
+    Map<String, Long> getLongHoldingSites(AtomicReferenceArray<PooledConnection> array) {
+        Map<String, Long> siteMaxMap = new HashMap<>(this.siteMap.size() + array.length());
+        for (Map.Entry<String, SiteHoldTime> entry : this.siteMap.entrySet())
+            siteMaxMap.put(entry.getKey(), entry.getValue().maxTime.get());
+
+        long time = System.nanoTime();
+        for (int i = 0, l = array.length(); i < l; i++) {
+            PooledConnection p = array.get(i);
+            if (p == null) continue;
+            Throwable borrowStack = p.borrowStack;
+            long borrowTime = p.borrowTime;
+            if (borrowStack != null && borrowTime != 0L && p.state == CON_USING) {
+                String site = getBorrowSite(borrowStack);
+                long holdTime = time - borrowTime;
+                Long maxTime = siteMaxMap.get(site);
+                if (maxTime == null || maxTime < holdTime) siteMaxMap.put(site, holdTime);
+            }
+        }
+
+        List<Map.Entry<String, Long>> entryList = new ArrayList<>(siteMaxMap.entrySet());
+        Collections.sort(entryList, new Comparator<Map.Entry<String, Long>>() {
+            public int compare(Map.Entry<String, Long> e1, Map.Entry<String, Long> e2) {
+                return e2.getValue().compareTo(e1.getValue());
+            }
+        });
+        Map<String, Long> topMap = new LinkedHashMap<>(this.topSize * 2);
+        for (int i = 0, l = Math.min(this.topSize, entryList.size()); i < l; i++) {
+            Map.Entry<String, Long> entry = entryList.get(i);
+            topMap.put(entry.getKey(), TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+        }
+        return topMap;
+    }
+
+    private static final class SiteHoldTime {
+        private final AtomicLong maxTime = new AtomicLong();//nanoseconds
+
+        void record(long holdTime) {
+            long curMax;
+            while (holdTime > (curMax = this.maxTime.get()) && !this.maxTime.compareAndSet(curMax, holdTime)) ;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.pool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Leak detector on borrowed connections,a connection is reported once in a borrowing when its hold time reaches
+ * threshold,stack of borrower is logged if it was sampled on borrowing.Detection is called by idle scan thread.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class ConnectionLeakDetector {
+    private static final Logger Log = LoggerFactory.getLogger(ConnectionLeakDetector.class);
+    private static final int MAX_REPORT_SIZE = 10;
+
+    private final String poolName;
+    private final long thresholdNs;
+    private final AtomicLong leakCount = new AtomicLong();
+    private final ConcurrentLinkedQueue<String> reportQueue = new ConcurrentLinkedQueue<>();
+
+    ConnectionLeakDetector(String poolName, long thresholdMs) {
+        this.poolName = poolName;
+        this.thresholdNs = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * checks a connection in using and reports it as leak if its hold time reaches threshold
+     *
+     * @param p           is a pooled connection in using
+     * @param holdTimeout is true when connection will be closed on hold timeout,then it is reported without threshold
+     * @return true if reported
+     */
+    boolean detect(PooledConnection p, boolean holdTimeout) {
+        long borrowTime = p.borrowTime;
+        if (borrowTime == 0L || p.leakReported) return false;
+        long holdTime = System.nanoTime() - borrowTime;
+        if (!holdTimeout && holdTime < this.thresholdNs) return false;
+
+        p.leakReported = true;
+        this.leakCount.incrementAndGet();
+        long holdTimeMs = TimeUnit.NANOSECONDS.toMillis(holdTime);
+        Throwable borrowStack = p.borrowStack;
+        String site = borrowStack != null ? ConnectionHoldStatistics.getBorrowSite(borrowStack) : "unknown(stack not sampled)";
+        this.reportQueue.offer("hold time:" + holdTimeMs + "ms,borrow site:" + site);
+        while (this.reportQueue.size() > MAX_REPORT_SIZE) this.reportQueue.poll();
+
+        if (borrowStack != null)
+            Log.warn("BeeCP({})connection leak detected,hold time:{}ms,stack of borrower:", this.poolName, holdTimeMs, borrowStack);
+        else
+            Log.warn("BeeCP({})connection leak detected,hold time:{}ms,stack of borrower not sampled", this.poolName, holdTimeMs);
+        return true;
+    }
+
+    long getLeakCount() {
+        return this.leakCount.get();
+    }
+
+    List<String> getLeakReports() {
+        return new ArrayList<>(this.reportQueue);
+    }
+}
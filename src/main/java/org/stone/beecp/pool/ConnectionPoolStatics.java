@@ -78,6 +78,7 @@ public final class ConnectionPoolStatics {
     static final int CON_IDLE = 0;
     static final int CON_USING = 1;
     static final int CON_CLOSED = 2;
+    static final int CON_VALIDATING = 3;
     //pool thread state
     static final int THREAD_WORKING = 0;
     static final int THREAD_WAITING = 1;
@@ -97,6 +98,8 @@ public final class ConnectionPoolStatics {
     static final String DESC_RM_CLOSED = "closed";
     static final String DESC_RM_CLEAR = "clear";
     static final String DESC_RM_DESTROY = "destroy";
+    //state of cancelled async borrowers
+    static final Object ASYNC_CANCELLED = new Object();
 
     //***************************************************************************************************************//
     //                                1: jdbc global proxy (3)                                                       //
@@ -0,0 +1,87 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.pool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A hashed timing wheel on timeout deadlines(idle timeout or hold timeout) of pooled connections.A connection is
+ * placed into a bucket by its next deadline and checked when the wheel reaches the bucket,then it is closed or
+ * placed again by its new deadline,so only connections reaching deadlines are touched in a tick.Connections are
+ * added by creation threads,but buckets are only accessed by idle scan thread.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class ConnectionTimingWheel {
+    private static final int WHEEL_SIZE = 512;//power of 2
+    private final long tickTime;//milliseconds
+    private final long startTime;//milliseconds
+    private final ArrayList<PooledConnection>[] buckets;
+    private final ConcurrentLinkedQueue<PooledConnection> newQueue = new ConcurrentLinkedQueue<>();
+    private long curTick;
+
+    @SuppressWarnings("unchecked")
+    ConnectionTimingWheel(long tickTime) {
+        this.tickTime = tickTime;
+        this.startTime = System.currentTimeMillis();
+        this.buckets = new ArrayList[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++)
+            this.buckets[i] = new ArrayList<>(4);
+    }
+
+    long getTickTime() {
+        return tickTime;
+    }
+
+    //add a new connection to wheel,which is checked in next tick
+    void add(PooledConnection p) {
+        this.newQueue.offer(p);
+    }
+
+    //place a connection into a bucket by its deadline(milliseconds),at least next tick
+    void schedule(PooledConnection p, long deadline) {
+        long tick = Math.max((deadline - this.startTime + this.tickTime - 1L) / this.tickTime, this.curTick + 1L);
+        p.wheelTick = tick;
+        this.buckets[(int) (tick & (WHEEL_SIZE - 1))].add(p);
+    }
+
+    /**
+     * advance wheel to a time point and take out connections reached their ticks,connections in later rounds
+     * are kept in buckets.
+     *
+     * @param time    is a time point(milliseconds)
+     * @param dueList is a list to store due connections and new added connections
+     */
+    void advance(long time, List<PooledConnection> dueList) {
+        long targetTick = (time - this.startTime) / this.tickTime;
+        long lastTick = Math.min(targetTick, this.curTick + WHEEL_SIZE);//one round is enough to visit all buckets
+        while (this.curTick < lastTick) {
+            long tick = ++this.curTick;
+            ArrayList<PooledConnection> bucket = this.buckets[(int) (tick & (WHEEL_SIZE - 1))];
+            for (int i = bucket.size() - 1; i >= 0; i--) {
+                PooledConnection p = bucket.get(i);
+                if (p.wheelTick <= targetTick) {
+                    dueList.add(p);
+                    int lastIndex = bucket.size() - 1;//swap with last one and remove it
+                    bucket.set(i, bucket.get(lastIndex));
+                    bucket.remove(lastIndex);
+                }
+            }
+        }
+        this.curTick = Math.max(this.curTick, targetTick);
+
+        PooledConnection p;
+        while ((p = this.newQueue.poll()) != null)
+            dueList.add(p);
+    }
+}
@@ -15,8 +15,11 @@ import org.stone.beecp.*;
 import org.stone.beecp.pool.exception.*;
 import org.stone.tools.atomic.IntegerFieldUpdaterImpl;
 import org.stone.tools.atomic.ReferenceFieldUpdaterImpl;
+import org.stone.tools.atomic.StripedCounter;
+import org.stone.tools.extension.InterruptionPermits;
 import org.stone.tools.extension.InterruptionReentrantLock;
 import org.stone.tools.extension.InterruptionSemaphore;
+import org.stone.tools.extension.SpinParkPermits;
 
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
@@ -27,17 +30,25 @@ import java.lang.ref.WeakReference;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.stone.beecp.pool.BorrowLatencyStatistics.*;
 import static org.stone.beecp.pool.ConnectionPoolStatics.*;
 import static org.stone.tools.CommonUtil.*;
 
@@ -47,10 +58,12 @@ import static org.stone.tools.CommonUtil.*;
  * @author Chris Liao
  * @version 1.0
  */
-public final class FastConnectionPool extends Thread implements BeeConnectionPool, FastConnectionPoolMBean, PooledConnectionAliveTest, PooledConnectionTransferPolicy {
+public final class FastConnectionPool extends Thread implements BeeAsyncConnectionPool, FastConnectionPoolMBean, PooledConnectionAliveTest, PooledConnectionTransferPolicy {
     private static final AtomicIntegerFieldUpdater<PooledConnection> ConStUpd = IntegerFieldUpdaterImpl.newUpdater(PooledConnection.class, "state");
     private static final AtomicReferenceFieldUpdater<Borrower, Object> BorrowStUpd = ReferenceFieldUpdaterImpl.newUpdater(Borrower.class, Object.class, "state");
     private static final AtomicIntegerFieldUpdater<FastConnectionPool> PoolStateUpd = IntegerFieldUpdaterImpl.newUpdater(FastConnectionPool.class, "poolState");
+    private static final AtomicLongFieldUpdater<FastConnectionPool> PermitsAdjustTimeUpd = AtomicLongFieldUpdater.newUpdater(FastConnectionPool.class, "permitsAdjustTime");
+    private static final long PermitsAdjustIntervalNs = TimeUnit.MILLISECONDS.toNanos(100L);
     private static final Logger Log = LoggerFactory.getLogger(FastConnectionPool.class);
 
     private String poolName;
@@ -64,12 +77,17 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
     private boolean isFairMode;
     private boolean isCompeteMode;
     private int semaphoreSize;
-    private InterruptionSemaphore semaphore;
+    private InterruptionPermits semaphore;
+    private SpinParkPermits adaptiveSemaphore;//not null when adaptive semaphore enabled
+    private volatile long permitsAdjustTime;//nanoseconds
+    private volatile long avgCreationTimeNs;//average time of connection creation(nanoseconds)
     private long maxWaitNs;//nanoseconds
     private long idleTimeoutMs;//milliseconds
     private long holdTimeoutMs;//milliseconds
     private boolean supportHoldTimeout;
+    private boolean enableLazyReset;//true:property resets on return are deferred to next borrowing
     private long aliveAssumeTimeMs;//milliseconds
+    private long aliveTestIntervalMs;//milliseconds,zero means background alive test disabled
     private int aliveTestTimeout;//seconds
     private long delayTimeForNextClearNs;//nanoseconds
     private int stateCodeOnRelease;
@@ -79,19 +97,43 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
     private PooledConnection templatePooledConn;
     private InterruptionReentrantLock pooledArrayLock;
     private volatile long pooledArrayLockedTimePoint;//nanoseconds
-    private volatile PooledConnection[] pooledArray;
+    private volatile AtomicReferenceArray<PooledConnection> pooledArray;//fixed slots(size is maxActive),empty slot is null
+    private AtomicInteger pooledSize;//count of filled slots
+    private StripedCounter idleCount;//count of idle connections,updated on state changes from or to idle
+    private StripedCounter transferWaitingCount;//count of borrowers in wait queue
+    private boolean enableExactMonitorScan;//true:monitor sizes are counted by scanning array and wait queue
+    private BorrowLatencyStatistics borrowStatistics;//latency histograms of borrowing phases,null when disabled
+    private ConnectionHoldStatistics holdStatistics;//hold time statistics of borrowed connections,null when disabled
+    private ConnectionLeakDetector leakDetector;//reports connections held over threshold,null when disabled
+    private boolean traceBorrowing;//true when hold time statistics or leak detection enabled
+    private int borrowStackSampleInterval;//sample a stack in every interval of borrowing(average),zero means no sample
+    private int parallelCreationSize;//creations run out of pool lock when greater than 1
+    private AtomicInteger creatingCount;//count of creations out of lock
+    private ConcurrentMap<Thread, Long> creatingThreads;//threads in creating out of lock,value is start time(nanoseconds)
+    private PooledConnectionIdleIndex idleIndex;
     private boolean isRawXaConnFactory;
     private BeeConnectionFactory rawConnFactory;
     private BeeXaConnectionFactory rawXaConnFactory;
     private PooledConnectionAliveTest conValidTest;
     private ThreadPoolExecutor networkTimeoutExecutor;
+    private volatile ScheduledThreadPoolExecutor asyncTimeoutExecutor;
+    private volatile ThreadPoolExecutor asyncCompletionExecutor;//validate and complete transferred connections for async borrowers
     private AtomicInteger servantState;
     private AtomicInteger servantTryCount;
     private AtomicInteger idleScanState;
     private IdleTimeoutScanThread idleScanThread;
-    private ConcurrentLinkedQueue<Borrower> waitQueue;
+    private AtomicInteger aliveTestState;
+    private AliveTestThread aliveTestThread;
+    private ThreadPoolExecutor aliveTestExecutor;//run alive tests concurrently in bulk mode
+    private ThreadPoolExecutor refillExecutor;//create connections in batch for waiters,null when fan-out is 1
+    private int refillFanOut;
+    private AtomicInteger refillTaskCount;//count of running refill tasks
+    private volatile ConnectionTimingWheel timingWheel;//null when timing wheel disabled
+    private BorrowerWaitQueue waitQueue;
     private boolean enableThreadLocal;
+    private int threadLocalCacheSize;
     private ThreadLocal<WeakReference<Borrower>> threadLocal;
+    private PooledConnectionAffinityCache affinityCache;//replace thread local in virtual thread mode
     private BeeDataSourceConfig poolConfig;
     private FastConnectionPoolMonitorVo monitorVo;
     private ConnectionPoolHook exitHook;
@@ -147,8 +189,17 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         this.poolMaxSize = poolConfig.getMaxActive();
         if (POOL_STARTING == poolWorkState) {//just create once
             this.pooledArrayLock = new InterruptionReentrantLock();
-            this.pooledArray = new PooledConnection[0];
+            this.pooledSize = new AtomicInteger(0);
+            this.idleCount = new StripedCounter();
+            this.transferWaitingCount = new StripedCounter();
+            this.creatingCount = new AtomicInteger(0);
+            this.creatingThreads = new ConcurrentHashMap<>(2);
         }
+        this.parallelCreationSize = poolConfig.getParallelCreationSize();
+        if (this.pooledArray == null || this.pooledArray.length() != this.poolMaxSize)//all slots are empty on restarting
+            this.pooledArray = new AtomicReferenceArray<>(this.poolMaxSize);
+        this.idleIndex = poolConfig.isEnableStripedIdleIndex() ? new PooledConnectionIdleIndex(poolMaxSize) : null;
+        this.timingWheel = poolConfig.isEnableTimingWheel() ? new ConnectionTimingWheel(poolConfig.getTimingWheelTickTime()) : null;
 
         //step3: creates initial connections by thread syn mode
         this.maxWaitNs = TimeUnit.MILLISECONDS.toNanos(poolConfig.getMaxWait());//timeout for acquiring on a semaphore or a lock
@@ -171,24 +222,43 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         this.idleTimeoutMs = poolConfig.getIdleTimeout();
         this.holdTimeoutMs = poolConfig.getHoldTimeout();
         this.supportHoldTimeout = holdTimeoutMs > 0L;
+        this.enableLazyReset = poolConfig.isEnableLazyReset();
         this.aliveAssumeTimeMs = poolConfig.getAliveAssumeTime();
+        this.aliveTestIntervalMs = poolConfig.getAliveTestInterval();
         this.aliveTestTimeout = poolConfig.getAliveTestTimeout();
         this.delayTimeForNextClearNs = TimeUnit.MILLISECONDS.toNanos(poolConfig.getDelayTimeForNextClear());
         this.printRuntimeLog = poolConfig.isPrintRuntimeLog();
         this.semaphoreSize = poolConfig.getBorrowSemaphoreSize();
+        this.enableExactMonitorScan = poolConfig.isEnableExactMonitorScan();
+        this.borrowStatistics = poolConfig.isEnableBorrowLatencyStatistics() ? new BorrowLatencyStatistics() : null;
+        this.holdStatistics = poolConfig.isEnableHoldTimeStatistics() ? new ConnectionHoldStatistics(10) : null;
+        this.leakDetector = poolConfig.getLeakDetectionThreshold() > 0L ? new ConnectionLeakDetector(this.poolName, poolConfig.getLeakDetectionThreshold()) : null;
+        this.traceBorrowing = this.holdStatistics != null || this.leakDetector != null;
+        this.borrowStackSampleInterval = poolConfig.getBorrowStackSampleInterval();
 
         //step6: creates semaphore and threadLocal
-        this.enableThreadLocal = poolConfig.isEnableThreadLocal();
-        this.semaphore = new InterruptionSemaphore(this.semaphoreSize, isFairMode);
-        if (enableThreadLocal) this.threadLocal = new BorrowerThreadLocal();//as a cache to store one used connection
+        boolean virtualThreadMode = poolConfig.isEnableVirtualThreadMode();
+        this.enableThreadLocal = poolConfig.isEnableThreadLocal() && !virtualThreadMode;
+        this.affinityCache = virtualThreadMode ? new PooledConnectionAffinityCache(poolMaxSize) : null;
+        if (poolConfig.isEnableCasSemaphore()) {
+            SpinParkPermits permits = new SpinParkPermits(this.semaphoreSize);
+            this.semaphore = permits;
+            this.adaptiveSemaphore = poolConfig.isEnableAdaptiveSemaphore() ? permits : null;
+        } else {
+            this.semaphore = new InterruptionSemaphore(this.semaphoreSize, isFairMode);
+            this.adaptiveSemaphore = null;
+        }
+        this.threadLocalCacheSize = poolConfig.getThreadLocalCacheSize();
+        if (enableThreadLocal) this.threadLocal = new BorrowerThreadLocal(threadLocalCacheSize);//as a cache to store recently used connections
 
         //step7: creates wait queue,scan thread and others
         if (POOL_STARTING == poolWorkState) {
-            this.waitQueue = new ConcurrentLinkedQueue<>();//wait queue(transfer released connections and exceptions of creation)
+            this.waitQueue = new BorrowerWaitQueue();//wait queue(transfer released connections and exceptions of creation)
             this.servantTryCount = new AtomicInteger(0);//count of retry chance applied in a transfer thread
             this.servantState = new AtomicInteger(THREAD_WORKING);//work state of the servant thread
             this.idleScanState = new AtomicInteger(THREAD_WORKING);//work state of idle-scan thread
             this.idleScanThread = new IdleTimeoutScanThread(this);
+            this.aliveTestState = new AtomicInteger(THREAD_WORKING);//work state of alive-test thread
             this.monitorVo = this.createPoolMonitorVo();//a view object contains pool info,such state,idle,using
             this.exitHook = new ConnectionPoolHook(this);//a hook works when JVM exit
             Runtime.getRuntime().addShutdownHook(this.exitHook);
@@ -205,6 +275,37 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
             this.idleScanThread.start();
         }
 
+        //step7.1: start alive-test thread when background alive test enabled
+        if (this.aliveTestIntervalMs > 0L && this.aliveTestThread == null) {
+            this.aliveTestThread = new AliveTestThread(this);
+            this.aliveTestThread.setDaemon(true);
+            this.aliveTestThread.setPriority(3);
+            this.aliveTestThread.setName("BeeCP(" + poolName + ")" + "-aliveTester");
+            this.aliveTestThread.start();
+        }
+        //executor is rebuilt from new configuration on restart(clear with configuration)
+        int aliveTestConcurrency = poolConfig.getAliveTestConcurrency();
+        ThreadPoolExecutor oldAliveTestExecutor = this.aliveTestExecutor;
+        if (aliveTestConcurrency > 1) {
+            this.aliveTestExecutor = new ThreadPoolExecutor(aliveTestConcurrency, aliveTestConcurrency, 10, SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new PoolThreadThreadFactory("BeeCP(" + poolName + ")" + "-aliveTestWorker"));
+            this.aliveTestExecutor.allowCoreThreadTimeOut(true);
+        } else {
+            this.aliveTestExecutor = null;
+        }
+        if (oldAliveTestExecutor != null) oldAliveTestExecutor.shutdown();
+        this.refillFanOut = Math.min(poolConfig.getServantCreationFanOut(), this.parallelCreationSize);
+        if (this.refillTaskCount == null) this.refillTaskCount = new AtomicInteger();//shared by tasks of old executor
+        ThreadPoolExecutor oldRefillExecutor = this.refillExecutor;
+        if (this.refillFanOut > 1) {
+            this.refillExecutor = new ThreadPoolExecutor(refillFanOut, refillFanOut, 10, SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new PoolThreadThreadFactory("BeeCP(" + poolName + ")" + "-refillCreator"));
+            this.refillExecutor.allowCoreThreadTimeOut(true);
+        } else {
+            this.refillExecutor = null;
+        }
+        if (oldRefillExecutor != null) oldRefillExecutor.shutdown();
+
         //step8: creates initial connections by thread async mode
         if (poolConfig.getInitialSize() > 0 && poolConfig.isAsyncCreateInitConnection())
             new PoolInitAsyncCreateThread(this).start();
@@ -219,18 +320,26 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
             driverClassNameOrFactoryName = rawFactory.getClass().getName();
             poolInitInfo = "BeeCP({})has startup{mode:{},init size:{},max size:{},semaphore size:{},max wait:{}ms,factory:{}}";
         }
-        Log.info(poolInitInfo, poolName, poolMode, pooledArray.length, poolMaxSize, semaphoreSize, poolConfig.getMaxWait(), driverClassNameOrFactoryName);
+        Log.info(poolInitInfo, poolName, poolMode, pooledSize.get(), poolMaxSize, semaphoreSize, poolConfig.getMaxWait(), driverClassNameOrFactoryName);
     }
 
     //Method-1.3: creates initial connections
     private void createInitConnections(int initSize, boolean syn) throws SQLException {
+        if (this.parallelCreationSize > 1) {
+            this.createInitConnectionsInParallel(initSize, syn);
+            return;
+        }
+
         pooledArrayLock.lock();
         try {
             for (int i = 0; i < initSize; i++)
                 this.createPooledConn(CON_IDLE);//<-- only thrown SQLException from this method
         } catch (SQLException e) {
-            for (PooledConnection p : this.pooledArray)
-                this.removePooledConn(p, DESC_RM_INIT);
+            AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+            for (int i = 0, l = array.length(); i < l; i++) {
+                PooledConnection p = array.get(i);
+                if (p != null) this.removePooledConn(p, DESC_RM_INIT);
+            }
             if (syn) {//throws failure exception on syn mode
                 throw e;
             } else {
@@ -241,8 +350,51 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         }
     }
 
+    //Method-1.3.1: creates initial connections on some creator threads
+    private void createInitConnectionsInParallel(int initSize, boolean syn) throws SQLException {
+        AtomicInteger remainSize = new AtomicInteger(initSize);
+        int threadSize = Math.min(initSize, this.parallelCreationSize);
+        ExecutorService creatorExecutor = Executors.newFixedThreadPool(threadSize, new PoolThreadThreadFactory("BeeCP(" + poolName + ")" + "-initCreator"));
+        List<Future<Object>> futures = new LinkedList<>();
+        for (int i = 0; i < threadSize; i++)
+            futures.add(creatorExecutor.submit(new PoolInitCreateTask(this, remainSize)));
+
+        SQLException cause = null;
+        try {
+            for (Future<Object> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable ec = e.getCause();
+                    if (cause == null)
+                        cause = ec instanceof SQLException ? (SQLException) ec : new ConnectionCreateException(ec);
+                }
+            }
+        } catch (InterruptedException e) {
+            remainSize.set(0);
+            cause = new ConnectionCreateException("An interruption occurred on initial connections creation");
+        } finally {
+            creatorExecutor.shutdownNow();
+        }
+
+        if (cause != null) {
+            AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+            for (int i = 0, l = array.length(); i < l; i++) {
+                PooledConnection p = array.get(i);
+                if (p != null) this.removePooledConn(p, DESC_RM_INIT);
+            }
+            if (syn) {//throws failure exception on syn mode
+                throw cause;
+            } else {
+                Log.warn("Failed to create initial connections", cause);
+            }
+        }
+    }
+
     //Method-1.4: creates a pooled connection under pool lock
     private PooledConnection createPooledConn(int state) throws SQLException {
+        if (this.parallelCreationSize > 1) return this.createPooledConnOutOfLock(state);
+
         //1:try to acquire lock
         try {
             if (!this.pooledArrayLock.tryLock(this.maxWaitNs, TimeUnit.NANOSECONDS))
@@ -254,54 +406,16 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         //2:Creates a connection under acquired lock
         try {
             this.pooledArrayLockedTimePoint = System.nanoTime();
-            int l = this.pooledArray.length;
-            if (l < this.poolMaxSize) {
+            if (this.pooledSize.get() < this.poolMaxSize) {
                 if (this.printRuntimeLog)
                     Log.info("BeeCP({}))begin to create a pooled connection with state:{}", this.poolName, state);
 
-                Connection rawConn = null;
-                XAConnection rawXaConn = null;
-                XAResource rawXaRes = null;
+                Object rawConn = null;
                 try {
-                    if (this.isRawXaConnFactory) {
-                        rawXaConn = this.rawXaConnFactory.create();//Stuck here? try <method>BeeDataSource.interruptThreadsOnCreationLock()<method>?
-                        if (rawXaConn == null) {
-                            if (Thread.interrupted())//test interrupted flag and clear it
-                                throw new ConnectionGetInterruptedException("An interruption occurred in xa-connection factory");
-                            throw new ConnectionCreateException("An internal error occurred in xa-Connection factory");
-                        }
-
-                        rawConn = rawXaConn.getConnection();
-                        rawXaRes = rawXaConn.getXAResource();
-                    } else {
-                        rawConn = this.rawConnFactory.create();
-                        if (rawConn == null) {
-                            if (Thread.interrupted())//test interrupted flag and clear it
-                                throw new ConnectionGetInterruptedException("An interruption occurred in connection factory");
-                            throw new ConnectionCreateException("An internal error occurred in connection factory");
-                        }
-                    }
-
-                    PooledConnection p;
-                    if (this.templatePooledConnIsReady) {//clone a pooled connection and set default to it
-                        p = this.templatePooledConn.setDefaultAndCreateByClone(rawConn, state, rawXaRes);
-                    } else {
-                        //create a cloneable template connection and make a first cloned connection with the template
-                        this.templatePooledConn = this.createTemplatePooledConn(rawConn);
-                        this.templatePooledConnIsReady = true;//template pooled connection is ready
-                        p = this.templatePooledConn.createFirstByClone(rawConn, state, rawXaRes);//create first pooled connection without default setting
-                    }
-
-                    if (this.printRuntimeLog)
-                        Log.info("BeeCP({}))created a new pooled connection:{} with state:{}", this.poolName, p, state);
-                    PooledConnection[] arrayNew = new PooledConnection[l + 1];
-                    System.arraycopy(this.pooledArray, 0, arrayNew, 0, l);
-                    arrayNew[l] = p;//append to array tail
-                    this.pooledArray = arrayNew;
-                    return p;
+                    rawConn = this.createRawConn();
+                    return this.addPooledConn(rawConn, state, this.pooledArrayLockedTimePoint);
                 } catch (Throwable e) {
-                    if (rawConn != null) oclose(rawConn);
-                    else if (rawXaConn != null) oclose(rawXaConn);
+                    if (rawConn != null) this.closeRawConn(rawConn);
                     throw e instanceof SQLException ? (SQLException) e : new ConnectionCreateException(e);
                 }
             }
@@ -312,47 +426,174 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         }
     }
 
-    //Method-1.5: remove a pooled connection under lock
-    private void removePooledConn(PooledConnection p, String cause) {
+    /**
+     * Method-1.4.1: reserves a creation slot under pool lock,then creates a raw connection out of lock and add it into
+     * array under lock again,so multiple connections can be created at same time.
+     *
+     * @param state of created connection
+     * @return a new pooled connection,null if pool is full or no free creation slot
+     * @throws SQLException when failed to create a connection
+     */
+    private PooledConnection createPooledConnOutOfLock(int state) throws SQLException {
+        //1:reserve a creation slot under lock
+        try {
+            if (!this.pooledArrayLock.tryLock(this.maxWaitNs, TimeUnit.NANOSECONDS))
+                throw new ConnectionCreateException("Wait timeout on pool lock acquisition");
+        } catch (InterruptedException e) {
+            throw new ConnectionCreateException("An interruption occurred on pool lock acquisition");
+        }
+        try {
+            int creatingSize = this.creatingCount.get();
+            if (creatingSize >= this.parallelCreationSize || this.pooledSize.get() + creatingSize >= this.poolMaxSize)
+                return null;
+            this.creatingCount.incrementAndGet();
+        } finally {
+            this.pooledArrayLock.unlock();
+        }
+
+        //2:create a raw connection out of lock,then add it to array under lock
+        Thread creatingThread = Thread.currentThread();
+        long startTime = System.nanoTime();
+        this.creatingThreads.put(creatingThread, startTime);
         if (this.printRuntimeLog)
-            Log.info("BeeCP({}))begin to remove a pooled connection:{} for cause:{}", this.poolName, p, cause);
-        p.onBeforeRemove();
+            Log.info("BeeCP({}))begin to create a pooled connection with state:{}", this.poolName, state);
 
-        this.pooledArrayLock.lock();
+        Object rawConn = null;
         try {
-            for (int l = this.pooledArray.length, i = l - 1; i >= 0; i--) {
-                if (this.pooledArray[i] == p) {
-                    PooledConnection[] arrayNew = new PooledConnection[l - 1];
-                    System.arraycopy(this.pooledArray, 0, arrayNew, 0, i);//copy pre
-                    int m = l - i - 1;
-                    if (m > 0) System.arraycopy(this.pooledArray, i + 1, arrayNew, i, m);//copy after
-                    this.pooledArray = arrayNew;
-                    if (this.printRuntimeLog)
-                        Log.info("BeeCP({}))removed a pooled connection:{} for cause:{}", this.poolName, p, cause);
-                    break;
-                }
+            rawConn = this.createRawConn();
+            this.pooledArrayLock.lock();
+            try {
+                return this.addPooledConn(rawConn, state, startTime);
+            } finally {
+                this.pooledArrayLock.unlock();
             }
+        } catch (Throwable e) {
+            if (rawConn != null) this.closeRawConn(rawConn);
+            throw e instanceof SQLException ? (SQLException) e : new ConnectionCreateException(e);
         } finally {
-            this.pooledArrayLock.unlock();
+            this.creatingCount.decrementAndGet();//after addition,so pool size plus creating count is not less than actual
+            this.creatingThreads.remove(creatingThread);
+            if (this.waitQueue != null && !this.waitQueue.isEmpty())//null when creating initial connections on first startup
+                this.tryWakeupServantThread();//free slot may be used by servant for waiters
         }
     }
 
-    //Method-1.6: Gets owner hold time point(milliseconds) on pool lock.
+    //Method-1.4.2: creates a raw connection(or xa connection) by factory
+    private Object createRawConn() throws SQLException {
+        if (this.isRawXaConnFactory) {
+            XAConnection rawXaConn = this.rawXaConnFactory.create();//Stuck here? try <method>BeeDataSource.interruptThreadsOnCreationLock()<method>?
+            if (rawXaConn == null) {
+                if (Thread.interrupted())//test interrupted flag and clear it
+                    throw new ConnectionGetInterruptedException("An interruption occurred in xa-connection factory");
+                throw new ConnectionCreateException("An internal error occurred in xa-Connection factory");
+            }
+            return rawXaConn;
+        } else {
+            Connection rawConn = this.rawConnFactory.create();
+            if (rawConn == null) {
+                if (Thread.interrupted())//test interrupted flag and clear it
+                    throw new ConnectionGetInterruptedException("An interruption occurred in connection factory");
+                throw new ConnectionCreateException("An internal error occurred in connection factory");
+            }
+            return rawConn;
+        }
+    }
+
+    //Method-1.4.3: close a raw connection(or xa connection) on creation failure
+    private void closeRawConn(Object rawConn) {
+        if (this.isRawXaConnFactory) {
+            oclose((XAConnection) rawConn);
+        } else {
+            oclose((Connection) rawConn);
+        }
+    }
+
+    //Method-1.4.4: makes a pooled connection on a raw connection and fills it into an empty slot(call under pool lock)
+    private PooledConnection addPooledConn(Object rawObj, int state, long startTime) throws SQLException, CloneNotSupportedException {
+        Connection rawConn;
+        XAResource rawXaRes = null;
+        if (this.isRawXaConnFactory) {
+            XAConnection rawXaConn = (XAConnection) rawObj;
+            rawConn = rawXaConn.getConnection();
+            rawXaRes = rawXaConn.getXAResource();
+        } else {
+            rawConn = (Connection) rawObj;
+        }
+        long avgTime = this.avgCreationTimeNs;//update under lock
+        this.avgCreationTimeNs = avgTime + ((System.nanoTime() - startTime - avgTime) >> 3);
+        if (this.borrowStatistics != null) this.borrowStatistics.record(PHASE_CREATION, startTime);
+
+        PooledConnection p;
+        if (this.templatePooledConnIsReady) {//clone a pooled connection and set default to it
+            p = this.templatePooledConn.setDefaultAndCreateByClone(rawConn, state, rawXaRes);
+        } else {
+            //create a cloneable template connection and make a first cloned connection with the template
+            this.templatePooledConn = this.createTemplatePooledConn(rawConn);
+            this.templatePooledConnIsReady = true;//template pooled connection is ready
+            p = this.templatePooledConn.createFirstByClone(rawConn, state, rawXaRes);//create first pooled connection without default setting
+        }
+
+        if (this.printRuntimeLog)
+            Log.info("BeeCP({}))created a new pooled connection:{} with state:{}", this.poolName, p, state);
+        AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+        for (int i = 0, l = array.length(); i < l; i++) {
+            if (array.get(i) == null) {
+                p.slotIndex = i;
+                if (array.compareAndSet(i, null, p)) {
+                    this.pooledSize.incrementAndGet();
+                    if (state == CON_IDLE) {
+                        this.idleCount.increment();
+                        if (this.idleIndex != null) this.idleIndex.offer(p);
+                    }
+                    ConnectionTimingWheel wheel = this.timingWheel;
+                    if (wheel != null) wheel.add(p);
+                    return p;
+                }
+            }
+        }
+        throw new ConnectionCreateException("No empty slot in pool to store a new connection");//unreachable,pool size is checked before creation
+    }
+
+    //Method-1.5: remove a pooled connection from its slot by cas
+    private void removePooledConn(PooledConnection p, String cause) {
+        if (this.printRuntimeLog)
+            Log.info("BeeCP({}))begin to remove a pooled connection:{} for cause:{}", this.poolName, p, cause);
+        if (p.state == CON_IDLE) this.casIdleState(p, CON_CLOSED);//keep idle count
+        p.onBeforeRemove();
+
+        if (this.pooledArray.compareAndSet(p.slotIndex, p, null)) {//decrement after emptying slot,so pool size is not less than actual
+            this.pooledSize.decrementAndGet();
+            if (this.printRuntimeLog)
+                Log.info("BeeCP({}))removed a pooled connection:{} for cause:{}", this.poolName, p, cause);
+        }
+    }
+
+    //Method-1.6: Gets owner hold time point(milliseconds) on pool lock,or start time of the earliest creation out of lock
     public long getCreatingTime() {
-        return this.pooledArrayLockedTimePoint;
+        long creatingTime = this.pooledArrayLockedTimePoint;
+        if (creatingTime == 0L) {
+            for (Long startTime : this.creatingThreads.values()) {
+                if (creatingTime == 0L || startTime < creatingTime) creatingTime = startTime;
+            }
+        }
+        return creatingTime;
     }
 
     //Method-1.7: return check result of pool lock hold timeout
     public boolean isCreatingTimeout() {
-        final long lockHoldTime = pooledArrayLockedTimePoint;
+        final long lockHoldTime = this.getCreatingTime();
         return lockHoldTime != 0L && System.nanoTime() - lockHoldTime > maxWaitNs;
     }
 
-    //Method-1.8: Interrupts lock owner and all waiters on pool lock
+    //Method-1.8: Interrupts lock owner and all waiters on pool lock,and threads in creating out of lock
     public Thread[] interruptOnCreation() {
         List<Thread> interrupedList = new LinkedList<>(this.pooledArrayLock.interruptQueuedWaitThreads());
         Thread ownerThread = this.pooledArrayLock.interruptOwnerThread();
         if (ownerThread != null) interrupedList.add(ownerThread);
+        for (Thread creatingThread : this.creatingThreads.keySet()) {
+            creatingThread.interrupt();
+            interrupedList.add(creatingThread);
+        }
 
         Thread[] interruptThreads = new Thread[interrupedList.size()];
         return interrupedList.toArray(interruptThreads);
@@ -479,28 +720,33 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
             }
         }
 
-        //step6: check driver whether support 'isAlive' method
+        //step6: use customized alive test or check driver whether support 'isAlive' method
         boolean supportIsValid = true;//assume support
-        try {
-            if (rawCon.isValid(this.aliveTestTimeout)) {
-                conValidTest = this;
-            } else {
-                supportIsValid = false;
-                if (this.printRuntimeLog) {
-                    Log.warn("BeeCP({})'isAlive' method of connection not supported by driver", this.poolName);
+        BeeConnectionAliveTest customAliveTest = this.poolConfig.getAliveTest();
+        if (customAliveTest != null) {
+            conValidTest = new PooledConnectionAliveTestByCustom(poolName, customAliveTest, aliveTestTimeout, printRuntimeLog);
+        } else {
+            try {
+                if (rawCon.isValid(this.aliveTestTimeout)) {
+                    conValidTest = this;
+                } else {
+                    supportIsValid = false;
+                    if (this.printRuntimeLog) {
+                        Log.warn("BeeCP({})'isAlive' method of connection not supported by driver", this.poolName);
+                    }
                 }
+            } catch (Throwable e) {
+                supportIsValid = false;
+                if (this.printRuntimeLog)
+                    Log.warn("BeeCP({}) 'isAlive' method check failed for driver", this.poolName, e);
             }
-        } catch (Throwable e) {
-            supportIsValid = false;
-            if (this.printRuntimeLog)
-                Log.warn("BeeCP({}) 'isAlive' method check failed for driver", this.poolName, e);
         }
 
         //step7:test driver whether support sql query timeout
         if (!supportIsValid) {
             String conTestSql = this.poolConfig.getAliveTestSql();
             boolean supportQueryTimeout = validateTestSql(poolName, rawCon, conTestSql, aliveTestTimeout, defaultAutoCommit);//check test sql
-            conValidTest = new PooledConnectionAliveTestBySql(poolName, conTestSql, aliveTestTimeout, defaultAutoCommit, supportQueryTimeout, printRuntimeLog);
+            conValidTest = new PooledConnectionAliveTestBySql(poolName, conTestSql, aliveTestTimeout, supportQueryTimeout, printRuntimeLog);
         }
 
         //step8: check driver whether support networkTimeout
@@ -515,7 +761,7 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
             } else {//driver support networkTimeout
                 if (this.networkTimeoutExecutor == null) {
                     this.networkTimeoutExecutor = new ThreadPoolExecutor(poolMaxSize, poolMaxSize, 10, SECONDS,
-                            new LinkedBlockingQueue<Runnable>(poolMaxSize), new PoolThreadThreadFactory("BeeCP(" + poolName + ")"));
+                            new LinkedBlockingQueue<Runnable>(poolMaxSize), new PoolThreadThreadFactory("BeeCP(" + poolName + ")" + "-networkTimeoutRestThread"));
                     this.networkTimeoutExecutor.allowCoreThreadTimeOut(true);
                 }
                 rawCon.setNetworkTimeout(networkTimeoutExecutor, defaultNetworkTimeout);
@@ -531,7 +777,17 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
             }
         }
 
-        //step9: create a base pooled connection for creation by clone
+        //step9: check driver whether support warnings clearing
+        boolean supportClearWarningsInd = true;
+        try {
+            rawCon.clearWarnings();
+        } catch (Throwable e) {
+            supportClearWarningsInd = false;
+            if (this.printRuntimeLog)
+                Log.warn("BeeCP({})'clearWarnings' method of connection not supported by driver", this.poolName, e);
+        }
+
+        //step10: create a base pooled connection for creation by clone
         return new PooledConnection(
                 this,
                 //1:defaultAutoCommit
@@ -555,10 +811,15 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
                 supportNetworkTimeoutInd,
                 defaultNetworkTimeout,
                 networkTimeoutExecutor,
-                //7:others
+                //7:warnings clearing
+                supportClearWarningsInd,
+                poolConfig.isForceClearWarnings(),
+                //8:others
                 poolConfig.getSqlExceptionCodeList(),
                 poolConfig.getSqlExceptionStateList(),
-                poolConfig.getEvictPredicate());
+                poolConfig.getEvictPredicate(),
+                poolConfig.getPreparedStatementCacheSize(),
+                poolConfig.isEnableLazyReset());
     }
 
     //***************************************************************************************************************//
@@ -566,66 +827,255 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
     //***************************************************************************************************************//
     //Method-2.1:borrows a connection from pool(return a resulted wrapper on connection)
     public Connection getConnection() throws SQLException {
-        return createProxyConnection(this.getPooledConnection());
+        PooledConnection p = this.getPooledConnection();
+        if (this.traceBorrowing) this.traceBorrowed(p, true);
+        return createProxyConnection(p);
     }
 
     //Method-2.2:borrows a XaConnection from pool(return a XA resulted wrapper on connection)
     public XAConnection getXAConnection() throws SQLException {
         PooledConnection p = this.getPooledConnection();
-        ProxyConnectionBase proxyConn = createProxyConnection(p);
+        if (this.traceBorrowing) this.traceBorrowed(p, true);
+        return this.createXaProxyConnection(p);
+    }
 
+    private XAConnection createXaProxyConnection(PooledConnection p) throws SQLException {
+        ProxyConnectionBase proxyConn = createProxyConnection(p);
         XAResource proxyResource = this.isRawXaConnFactory ? new XaProxyResource(p.rawXaRes, proxyConn) : new XaResourceLocalImpl(proxyConn, p.defaultAutoCommit);
         return new XaProxyConnection(proxyConn, proxyResource);
     }
 
+    //Method-2.2.1:borrows a connection asynchronously,future completes when a connection transferred to it
+    public BeeConnectionFuture<Connection> getConnectionAsync() {
+        ConnectionFuture<Connection> future = new ConnectionFuture<>(this, false);
+        this.borrowAsync(future);
+        return future;
+    }
+
+    //Method-2.2.2:borrows a XaConnection asynchronously,future completes when a connection transferred to it
+    public BeeConnectionFuture<XAConnection> getXAConnectionAsync() {
+        ConnectionFuture<XAConnection> future = new ConnectionFuture<>(this, true);
+        this.borrowAsync(future);
+        return future;
+    }
+
+    /**
+     * Method-2.2.3: async borrowing never parks caller thread and runs no driver I/O on it,it tries to catch an idle
+     * connection,which completes future directly if it needs neither alive test nor pending resets;otherwise a borrower
+     * with the future is put into wait queue(without semaphore permit),then caught connection is handed over to
+     * completion executor to be tested for it,or servant thread is waked up to search or create one for it.
+     *
+     * @param future to be completed
+     */
+    private void borrowAsync(ConnectionFuture future) {
+        if (this.poolState != POOL_READY) {
+            future.fail(new ConnectionGetForbiddenException("Pool was closed or in clearing"));
+            return;
+        }
+
+        //1: try to catch an idle connection,which need not alive test and resets
+        PooledConnection p = this.searchIdle();
+        if (p != null && !this.needTestOrReset(p)) {
+            this.completeAsyncBorrower(future, p);
+            return;
+        }
+
+        //2: wait in queue for a transferred connection(caught one is transferred to it in completion executor)
+        Borrower b = new Borrower(future);
+        b.state = p;//not visible to recyclers before offer
+        future.borrower = b;
+        this.offerWaiter(b);
+        ScheduledFuture<?> timeoutTask = this.getAsyncTimeoutExecutor().schedule(new AsyncBorrowTimeoutTask(this, b), this.maxWaitNs, TimeUnit.NANOSECONDS);
+        future.timeoutTask = timeoutTask;
+        if (future.isDone()) timeoutTask.cancel(false);
+        if (p != null) {
+            this.submitAsyncTransfer(b, p);
+        } else {
+            this.tryWakeupServantThread();
+        }
+    }
+
+    //Method-2.2.4: catch an idle connection without alive test and resets
+    private PooledConnection searchIdle() {
+        PooledConnection p = null;
+        if (this.idleIndex != null) {
+            while ((p = this.idleIndex.poll()) != null) {
+                if (this.casIdleState(p, CON_USING)) break;
+            }
+        } else {
+            AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+            for (int i = 0, l = array.length(); i < l; i++) {
+                PooledConnection c = array.get(i);
+                if (c != null && c.state == CON_IDLE && this.casIdleState(c, CON_USING)) {
+                    p = c;
+                    break;
+                }
+            }
+        }
+
+        return p;
+    }
+
+    //true if a caught connection need alive test or pending resets(driver I/O)
+    private boolean needTestOrReset(PooledConnection p) {
+        return System.currentTimeMillis() - p.lastAccessTime > this.aliveAssumeTimeMs || (this.enableLazyReset && p.hasPendingReset());
+    }
+
+    //Method-2.2.5: complete future with a proxy connection made on a pooled connection
+    private void completeAsyncBorrower(ConnectionFuture future, PooledConnection p) {
+        if (this.traceBorrowing) this.traceBorrowed(p, false);//current thread is not borrower
+        try {
+            future.complete(future.xa ? this.createXaProxyConnection(p) : createProxyConnection(p));
+        } catch (Throwable e) {
+            this.recycle(p);
+            future.fail(e);
+        }
+    }
+
+    //Method-2.2.6: test a caught connection and complete async borrower with it in completion executor(not in recycler thread)
+    private void transferToAsyncBorrower(Borrower b, PooledConnection p) {
+        if (this.testOnBorrow(p)) {
+            this.removeWaiter(b);
+            this.completeAsyncBorrower(b.future, p);
+        } else {
+            b.state = null;//keep waiting
+        }
+    }
+
+    //Method-2.2.7: cancel an async borrower in wait queue,return true if cancelled
+    boolean cancelAsyncBorrower(Borrower b) {
+        return this.abortAsyncBorrower(b, null);
+    }
+
+    //Method-2.2.8: abort an async borrower with a cause(null means cancellation)
+    private boolean abortAsyncBorrower(Borrower b, Throwable cause) {
+        do {
+            Object s = b.state;
+            if (s == null) {
+                if (BorrowStUpd.compareAndSet(b, null, cause != null ? cause : ASYNC_CANCELLED)) {
+                    this.removeWaiter(b);
+                    return cause != null ? b.future.fail(cause) : b.future.setCancelled();
+                }
+            } else if (s instanceof PooledConnection && !b.future.isDone()) {
+                Thread.yield();//a recycler is transferring a connection to it
+            } else {
+                return false;
+            }
+        } while (true);
+    }
+
+    //Method-2.2.9: a timer executor to check timeout of async borrowers
+    private ScheduledThreadPoolExecutor getAsyncTimeoutExecutor() {
+        ScheduledThreadPoolExecutor executor = this.asyncTimeoutExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if ((executor = this.asyncTimeoutExecutor) == null) {
+                    executor = new ScheduledThreadPoolExecutor(1, new PoolThreadThreadFactory("BeeCP(" + poolName + ")" + "-asyncTimeout"));
+                    executor.setRemoveOnCancelPolicy(true);
+                    this.asyncTimeoutExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    //Method-2.2.10: hand over a caught connection to completion executor,alive test and resets may block on I/O
+    private void submitAsyncTransfer(Borrower b, PooledConnection p) {
+        ThreadPoolExecutor executor = this.asyncCompletionExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if ((executor = this.asyncCompletionExecutor) == null) {
+                    int size = Math.min(this.poolMaxSize, NCPU);
+                    executor = new ThreadPoolExecutor(size, size, 10, SECONDS, new LinkedBlockingQueue<Runnable>(),
+                            new PoolThreadThreadFactory("BeeCP(" + poolName + ")" + "-asyncCompleter"));
+                    executor.allowCoreThreadTimeOut(true);
+                    this.asyncCompletionExecutor = executor;
+                }
+            }
+        }
+        try {
+            executor.execute(new AsyncTransferTask(this, b, p));
+        } catch (RejectedExecutionException e) {//pool closed
+            this.transferToAsyncBorrower(b, p);
+        }
+    }
+
     //Method-2.3:borrows a pooled connection from pool
     private PooledConnection getPooledConnection() throws SQLException {
         if (this.poolState != POOL_READY)
             throw new ConnectionGetForbiddenException("Pool was closed or in clearing");
 
         //0: get the last used connection from threadLocal and try to hold it via cas
+        BorrowLatencyStatistics statistics = this.borrowStatistics;//null when statistics disabled
+        long startTime = statistics != null ? System.nanoTime() : 0L;
         Borrower b;
         if (this.enableThreadLocal) {//set false to support virtual threads
             b = this.threadLocal.get().get();
             if (b != null) {
-                PooledConnection p = b.lastUsed;
-                if (p != null && p.state == CON_IDLE && ConStUpd.compareAndSet(p, CON_IDLE, CON_USING)) {
-                    if (this.testOnBorrow(p)) return b.lastUsed = p;
-                    b.lastUsed = null;
+                PooledConnection[] usedCache = b.usedCache;
+                for (int i = 0, l = usedCache.length; i < l; i++) {
+                    PooledConnection p = usedCache[i];
+                    if (p != null && p.state == CON_IDLE && this.casIdleState(p, CON_USING)) {
+                        if (this.testOnBorrow(p)) {
+                            if (statistics != null) statistics.record(PHASE_THREAD_LOCAL_HIT, startTime);
+                            return p;
+                        }
+                        usedCache[i] = null;
+                    }
                 }
             } else {
-                b = new Borrower();
+                b = new Borrower(this.threadLocalCacheSize);
                 this.threadLocal.set(new WeakReference<>(b));
             }
         } else {
-            b = new Borrower();
+            b = null;//created when need wait in queue
+            PooledConnectionAffinityCache cache = this.affinityCache;
+            if (cache != null) {//virtual thread mode
+                PooledConnection p = cache.get();
+                if (p != null && p.state == CON_IDLE && this.casIdleState(p, CON_USING) && this.testOnBorrow(p)) {
+                    if (statistics != null) statistics.record(PHASE_THREAD_LOCAL_HIT, startTime);
+                    return p;
+                }
+            }
         }
 
+        if (this.adaptiveSemaphore != null && this.adaptiveSemaphore.availablePermits() <= 0)
+            this.adjustSemaphorePermits();
+
         long deadline = System.nanoTime();
         try {
             //1: Acquires a permit from pool semaphore
-            if (!this.semaphore.tryAcquire(this.maxWaitNs, TimeUnit.NANOSECONDS))
-                throw new ConnectionGetTimeoutException("Wait timeout on pool semaphore acquisition");
+            boolean acquired = this.semaphore.tryAcquire(this.maxWaitNs, TimeUnit.NANOSECONDS);
+            if (statistics != null) statistics.record(PHASE_SEMAPHORE_WAIT, deadline);
+            if (!acquired) throw new ConnectionGetTimeoutException("Wait timeout on pool semaphore acquisition");
         } catch (InterruptedException e) {
+            if (statistics != null) statistics.record(PHASE_SEMAPHORE_WAIT, deadline);
             throw new ConnectionGetInterruptedException("An interruption occurred on pool semaphore acquisition");
         }
 
         //2: try to search idle one,if not get,then try to create new one when pool not full
         PooledConnection p;
+        if (statistics != null) startTime = System.nanoTime();
         try {
             p = this.searchOrCreate();
             if (p != null) {
                 semaphore.release();
-                return b.lastUsed = p;
+                if (b != null) b.setLastUsed(p);
+                if (this.affinityCache != null) this.affinityCache.set(p);
+                return p;
             }
         } catch (SQLException e) {
             semaphore.release();
             throw e;
+        } finally {
+            if (statistics != null) statistics.record(PHASE_SEARCH, startTime);
         }
 
         //3:try to get a transferred connection
+        if (statistics != null) startTime = System.nanoTime();
+        if (b == null) b = new Borrower();
         b.state = null;
-        this.waitQueue.offer(b);//self in,self out
+        this.offerWaiter(b);//self in,self out
         SQLException cause = null;
         deadline += this.maxWaitNs;
 
@@ -634,13 +1084,17 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
             if (s instanceof PooledConnection) {
                 p = (PooledConnection) s;
                 if (this.transferPolicy.tryCatch(p) && this.testOnBorrow(p)) {
-                    this.waitQueue.remove(b);
+                    this.removeWaiter(b);
                     this.semaphore.release();
-                    return b.lastUsed = p;
+                    if (statistics != null) statistics.record(PHASE_TRANSFER_WAIT, startTime);
+                    if (this.affinityCache != null) this.affinityCache.set(p);
+                    b.setLastUsed(p);
+                    return p;
                 }
             } else if (s instanceof Throwable) {
-                this.waitQueue.remove(b);
+                this.removeWaiter(b);
                 this.semaphore.release();
+                if (statistics != null) statistics.record(PHASE_TRANSFER_WAIT, startTime);
                 throw s instanceof SQLException ? (SQLException) s : new ConnectionGetException((Throwable) s);
             }
 
@@ -666,12 +1120,21 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
 
     //Method-2.4: search an idle connection,if not get,then try to create new one when capacity not reach max
     private PooledConnection searchOrCreate() throws SQLException {
-        PooledConnection[] array = this.pooledArray;
-        for (PooledConnection p : array) {
-            if (p.state == CON_IDLE && ConStUpd.compareAndSet(p, CON_IDLE, CON_USING) && this.testOnBorrow(p))
-                return p;
+        if (this.idleIndex != null) {
+            PooledConnection p;
+            while ((p = this.idleIndex.poll()) != null) {
+                if (this.casIdleState(p, CON_USING) && this.testOnBorrow(p))
+                    return p;
+            }
+        } else {
+            AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+            for (int i = 0, l = array.length(); i < l; i++) {
+                PooledConnection p = array.get(i);
+                if (p != null && p.state == CON_IDLE && this.casIdleState(p, CON_USING) && this.testOnBorrow(p))
+                    return p;
+            }
         }
-        if (this.pooledArray.length < this.poolMaxSize)
+        if (this.pooledSize.get() < this.poolMaxSize)
             return this.createPooledConn(CON_USING);
         return null;
     }
@@ -693,16 +1156,30 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
      * @param p released connection
      */
     public void recycle(PooledConnection p) {
-        if (isCompeteMode) p.state = CON_IDLE;
+        if (isCompeteMode) {
+            this.idleCount.increment();//increase before state set,so idle count is not less than actual
+            p.state = CON_IDLE;
+            if (this.idleIndex != null) this.idleIndex.offer(p);
+        }
         for (Borrower b : this.waitQueue) {
             if (p.state != stateCodeOnRelease) return;
             if (b.state == null && BorrowStUpd.compareAndSet(b, null, p)) {
-                LockSupport.unpark(b.thread);
+                if (b.future == null) {
+                    LockSupport.unpark(b.thread);
+                } else if (this.transferPolicy.tryCatch(p)) {//catch it here(a cas),then others can't take it before test
+                    this.submitAsyncTransfer(b, p);
+                } else {
+                    b.state = null;//keep waiting
+                }
                 return;
             }
         }
 
-        if (isFairMode) p.state = CON_IDLE;
+        if (isFairMode) {
+            this.idleCount.increment();//increase before state set,so idle count is not less than actual
+            p.state = CON_IDLE;
+            if (this.idleIndex != null) this.idleIndex.offer(p);
+        }
         tryWakeupServantThread();
     }
 
@@ -714,7 +1191,12 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
     private void transferException(Throwable e) {
         for (Borrower b : waitQueue) {
             if (b.state == null && BorrowStUpd.compareAndSet(b, null, e)) {
-                LockSupport.unpark(b.thread);
+                if (b.future == null) {
+                    LockSupport.unpark(b.thread);
+                } else {
+                    this.removeWaiter(b);
+                    b.future.fail(e);
+                }
                 return;
             }
         }
@@ -731,12 +1213,13 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
     }
 
     /**
-     * Method-2.9: alive test on a borrowed connection
+     * Method-2.9: alive test on a borrowed connection,pending resets are applied before test in lazy reset mode
      *
      * @return boolean true means the checked connection is alive;false,it is bad
      */
     private boolean testOnBorrow(PooledConnection p) {
-        if (System.currentTimeMillis() - p.lastAccessTime > this.aliveAssumeTimeMs && !this.conValidTest.isAlive(p)) {
+        if ((this.enableLazyReset && !p.applyPendingReset()) ||
+                (System.currentTimeMillis() - p.lastAccessTime > this.aliveAssumeTimeMs && !this.conValidTest.isAlive(p))) {
             this.removePooledConn(p, DESC_RM_BAD);
             this.tryWakeupServantThread();
             return false;
@@ -745,16 +1228,89 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         }
     }
 
+    /**
+     * Method-2.10: adjust permit size of adaptive semaphore(at most once in an interval).Permits grow one by one when
+     * borrowers wait on semaphore but wait queue is empty,they are halved(not less than configured size) when
+     * borrowers wait for transfer and more borrowers than permits wait on semaphore,or creation is slow(average
+     * creation time more than 1/8 of max wait time)
+     */
+    private void adjustSemaphorePermits() {
+        long time = System.nanoTime();
+        long lastTime = this.permitsAdjustTime;
+        if (time - lastTime < PermitsAdjustIntervalNs || !PermitsAdjustTimeUpd.compareAndSet(this, lastTime, time))
+            return;
+
+        int permits = this.adaptiveSemaphore.getPermits();
+        int transferWaitingSize = this.getTransferWaitingSize();
+        int semaphoreWaitingSize = this.adaptiveSemaphore.getQueueLength();
+        int newPermits = permits;
+        if ((transferWaitingSize > 0 && semaphoreWaitingSize > permits) || this.avgCreationTimeNs > this.maxWaitNs >>> 3) {
+            newPermits = Math.max(this.semaphoreSize, permits >>> 1);
+        } else if (transferWaitingSize == 0 && permits < this.poolMaxSize && semaphoreWaitingSize > 0) {
+            newPermits = permits + 1;
+        }
+
+        if (newPermits != permits) {
+            this.adaptiveSemaphore.setPermits(newPermits);
+            if (this.printRuntimeLog)
+                Log.info("BeeCP({})adjusted semaphore permits from {} to {}", this.poolName, permits, newPermits);
+        }
+    }
+
+    /**
+     * Method-2.11: cas an idle connection to a new state,count of idle connections is decreased on success
+     *
+     * @param p        is a connection in idle
+     * @param newState is target state
+     * @return boolean true means cas success
+     */
+    private boolean casIdleState(PooledConnection p, int newState) {
+        if (ConStUpd.compareAndSet(p, CON_IDLE, newState)) {
+            this.idleCount.decrement();
+            return true;
+        }
+        return false;
+    }
+
+    //Method-2.12: put a borrower into wait queue and count it
+    private void offerWaiter(Borrower b) {
+        this.transferWaitingCount.increment();
+        this.waitQueue.offer(b);
+    }
+
+    //Method-2.13: remove a borrower from wait queue and count it
+    private void removeWaiter(Borrower b) {
+        if (this.waitQueue.remove(b)) this.transferWaitingCount.decrement();
+    }
+
+    //Method-2.14: mark borrow time on a borrowed connection and sample a stack of borrower
+    private void traceBorrowed(PooledConnection p, boolean inBorrowerThread) {
+        int interval = this.borrowStackSampleInterval;
+        p.borrowStack = inBorrowerThread && interval > 0 && (interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0) ? new Throwable("Stack of borrower") : null;
+        p.leakReported = false;
+        p.borrowTime = System.nanoTime();
+    }
+
+    //Method-2.15: record hold time of a connection on its return and clear its borrow trace
+    void traceReturned(PooledConnection p) {
+        if (p.borrowTime != 0L) {
+            ConnectionHoldStatistics statistics = this.holdStatistics;
+            if (statistics != null) statistics.onReturned(p);
+            p.borrowTime = 0L;
+            p.borrowStack = null;
+        }
+    }
+
     public int getStateCodeOnRelease() {
         return CON_IDLE;
     }
 
     public boolean tryCatch(PooledConnection p) {
-        return p.state == CON_IDLE && ConStUpd.compareAndSet(p, CON_IDLE, CON_USING);
+        return p.state == CON_IDLE && this.casIdleState(p, CON_USING);
     }
 
     //***************************************************************************************************************//
-    //                       3: Pooled connection idle-timeout/hold-timeout scan methods(3)                          //                                                                                  //
+    //                       3: Pooled connection idle-timeout/hold-timeout scan methods(8)                          //                                                                                  //
     //***************************************************************************************************************//
     //Method-3.1: stop all inner threads of pool
     private void shutdownPoolThreads() {
@@ -765,6 +1321,9 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         curState = this.idleScanState.get();
         this.idleScanState.set(THREAD_EXIT);
         if (curState == THREAD_WAITING) LockSupport.unpark(this.idleScanThread);
+
+        this.aliveTestState.set(THREAD_EXIT);
+        if (this.aliveTestThread != null) LockSupport.unpark(this.aliveTestThread);
     }
 
     //Method-3.2: thread override method to do search or creating new one
@@ -774,6 +1333,7 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
                 int c = servantTryCount.get();
                 if (c <= 0 || (waitQueue.isEmpty() && servantTryCount.compareAndSet(c, 0))) break;
                 servantTryCount.decrementAndGet();
+                if (refillExecutor != null && this.refillInBatch()) continue;
 
                 try {
                     PooledConnection p = searchOrCreate();
@@ -790,6 +1350,28 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         }
     }
 
+    /**
+     * Method-3.2.1: submit a batch of creation tasks for waiters,batch size is the deficit(min of waiting depth and free
+     * capacity) but not more than free fan-out,connections are transferred to waiters one by one when created.
+     *
+     * @return false if batch size is not greater than 1,then servant thread creates by itself
+     */
+    private boolean refillInBatch() {
+        int deficit = Math.min(this.getTransferWaitingSize(), this.poolMaxSize - this.pooledSize.get() - this.creatingCount.get());
+        int batchSize = Math.min(deficit, this.refillFanOut - this.refillTaskCount.get());
+        if (batchSize <= 1) return false;
+
+        try {
+            for (int i = 0; i < batchSize; i++) {
+                this.refillTaskCount.incrementAndGet();
+                this.refillExecutor.execute(new RefillCreateTask(this));
+            }
+        } catch (RejectedExecutionException e) {//executor shutdown on pool closing
+            this.refillTaskCount.decrementAndGet();
+        }
+        return true;
+    }
+
     /**
      * Method-3.3: close idle timeout connections when available permit size of semaphore is full
      */
@@ -806,39 +1388,193 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
             this.interruptOnCreation();
         }
 
-        //step3:remove idle timeout and hold timeout
-        PooledConnection[] array = this.pooledArray;
-        for (PooledConnection p : array) {
-            final int state = p.state;
-            if (state == CON_IDLE && this.semaphore.availablePermits() == this.semaphoreSize) {//no borrowers on semaphore
-                boolean isTimeoutInIdle = System.currentTimeMillis() - p.lastAccessTime >= this.idleTimeoutMs;
-                if (isTimeoutInIdle && ConStUpd.compareAndSet(p, state, CON_CLOSED)) {//need close idle
-                    this.removePooledConn(p, DESC_RM_IDLE);
-                    this.tryWakeupServantThread();
+        //step3:remove idle timeout and hold timeout(checked by deadlines on timing wheel in wheel mode)
+        AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+        if (this.timingWheel != null) {
+            if (this.leakDetector != null) {//leak threshold is not a deadline on wheel
+                for (int i = 0, l = array.length(); i < l; i++) {
+                    PooledConnection p = array.get(i);
+                    if (p != null && p.state == CON_USING) this.leakDetector.detect(p, false);
                 }
-            } else if (state == CON_USING && supportHoldTimeout) {
-                if (System.currentTimeMillis() - p.lastAccessTime - holdTimeoutMs >= 0L) {//hold timeout
-                    ProxyConnectionBase proxyInUsing = p.proxyInUsing;
-                    if (proxyInUsing != null) {
-                        oclose(proxyInUsing);
-                    } else {
-                        this.removePooledConn(p, DESC_RM_BAD);
+            }
+        } else {
+            for (int i = 0, l = array.length(); i < l; i++) {
+                PooledConnection p = array.get(i);
+                if (p == null) continue;
+                final int state = p.state;
+                if (state == CON_IDLE && this.semaphore.availablePermits() == this.getSemaphoreSize()) {//no borrowers on semaphore
+                    boolean isTimeoutInIdle = System.currentTimeMillis() - p.lastAccessTime >= this.idleTimeoutMs;
+                    if (isTimeoutInIdle && this.casIdleState(p, CON_CLOSED)) {//need close idle
+                        this.removePooledConn(p, DESC_RM_IDLE);
                         this.tryWakeupServantThread();
                     }
+                } else if (state == CON_USING) {
+                    if (this.leakDetector != null) this.leakDetector.detect(p, false);
+                    if (supportHoldTimeout && System.currentTimeMillis() - p.lastAccessTime - holdTimeoutMs >= 0L) {//hold timeout
+                        if (this.leakDetector != null) this.leakDetector.detect(p, true);//report holder before closing
+                        ProxyConnectionBase proxyInUsing = p.proxyInUsing;
+                        if (proxyInUsing != null) {
+                            oclose(proxyInUsing);
+                        } else {
+                            this.removePooledConn(p, DESC_RM_BAD);
+                            this.tryWakeupServantThread();
+                        }
+                    }
+                } else if (state == CON_CLOSED) {
+                    this.removePooledConn(p, DESC_RM_CLOSED);
+                    this.tryWakeupServantThread();
                 }
-            } else if (state == CON_CLOSED) {
-                this.removePooledConn(p, DESC_RM_CLOSED);
-                this.tryWakeupServantThread();
             }
         }
 
-        //step4: print pool info after idle clean
+        //step4: keepalive test on idle connections reached assume time in bulk mode
+        if (this.aliveTestExecutor != null && this.poolState == POOL_READY)
+            this.testIdleConnections(System.currentTimeMillis() - this.aliveAssumeTimeMs);
+
+        //step5: print pool info after idle clean
         if (printRuntimeLog) {
             BeeConnectionPoolMonitorVo vo = getPoolMonitorVo();
             Log.info("BeeCP({})after idle clear,{idle:{},using:{},semaphore-waiting:{},transfer-waiting:{}}", this.poolName, vo.getIdleSize(), vo.getUsingSize(), vo.getSemaphoreWaitingSize(), vo.getTransferWaitingSize());
         }
     }
 
+    /**
+     * Method-3.4: background alive test on idle connections which reach assume time before next test,a tested
+     * connection is marked validating to be invisible to borrowers,then released with a refreshed access time,
+     * so borrowers skip tests on it.Bad connections are removed.
+     */
+    private void testIdleConnections() {
+        this.testIdleConnections(System.currentTimeMillis() + this.aliveTestIntervalMs - this.aliveAssumeTimeMs);
+    }
+
+    /**
+     * Method-3.5: alive test on idle connections whose last access time is not after a time point,tests run one by
+     * one in current thread;in bulk mode,connections are claimed in batches(size of batch is concurrency) and each
+     * batch is tested concurrently within a shared timeout(aliveTestTimeout)
+     *
+     * @param testTimePoint is a time point(milliseconds) to pick connections
+     */
+    private void testIdleConnections(long testTimePoint) {
+        ThreadPoolExecutor executor = this.aliveTestExecutor;
+        int batchSize = executor != null ? executor.getMaximumPoolSize() : 1;
+        List<PooledConnection> batch = executor != null ? new ArrayList<PooledConnection>(batchSize) : null;
+
+        AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+        for (int i = 0, l = array.length(); i < l; i++) {
+            PooledConnection p = array.get(i);
+            if (p == null || p.state != CON_IDLE || p.lastAccessTime > testTimePoint) continue;
+            if (!this.casIdleState(p, CON_VALIDATING)) continue;
+
+            if (batch == null) {
+                this.releaseOnAliveTest(p, this.conValidTest.isAlive(p));
+            } else {
+                batch.add(p);
+                if (batch.size() == batchSize) {
+                    this.testAliveInBulk(executor, batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (batch != null && !batch.isEmpty()) this.testAliveInBulk(executor, batch);
+    }
+
+    //Method-3.6: test a batch of validating connections concurrently,connections not completed in timeout are removed
+    private void testAliveInBulk(ThreadPoolExecutor executor, List<PooledConnection> batch) {
+        List<AliveTestTask> tasks = new ArrayList<>(batch.size());
+        for (PooledConnection p : batch)
+            tasks.add(new AliveTestTask(this.conValidTest, p));
+
+        List<Future<Boolean>> futures = null;
+        try {
+            futures = this.aliveTestTimeout > 0 ? executor.invokeAll(tasks, this.aliveTestTimeout, SECONDS) : executor.invokeAll(tasks);
+        } catch (Throwable e) {//interrupted or rejected
+            if (this.printRuntimeLog)
+                Log.warn("BeeCP({})alive test in bulk failed", this.poolName, e);
+        }
+
+        for (int i = 0, l = batch.size(); i < l; i++) {
+            boolean alive = false;
+            if (futures != null) {
+                try {
+                    alive = futures.get(i).get();//cancelled when timeout
+                } catch (Throwable e) {
+                    //do nothing
+                }
+            }
+            this.releaseOnAliveTest(batch.get(i), alive);
+        }
+    }
+
+    //Method-3.7: release a validating connection to pool when it is alive,otherwise remove it
+    private void releaseOnAliveTest(PooledConnection p, boolean alive) {
+        if (alive) {
+            if (!this.isCompeteMode) p.state = this.stateCodeOnRelease;//state checked on transferring in fair mode
+            this.recycle(p);
+        } else {
+            this.removePooledConn(p, DESC_RM_BAD);
+            this.tryWakeupServantThread();
+        }
+    }
+
+    /**
+     * Method-3.8: check connections reached their deadlines on timing wheel,idle timeout and hold timeout connections
+     * are closed,others are placed into wheel again with new deadlines.Removed connections are dropped from wheel.
+     * Idle connections are placed at earliest of idle deadline and a hold timeout later,so a connection borrowed
+     * after placement is checked again within hold timeout(borrow path not touch wheel).
+     *
+     * @param wheel is timing wheel of pool
+     */
+    private void closeTimeoutConnectionsOnWheel(ConnectionTimingWheel wheel) {
+        List<PooledConnection> dueList = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), dueList);
+
+        AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+        for (PooledConnection p : dueList) {
+            if (array.get(p.slotIndex) != p) continue;//removed from pool
+
+            long time = System.currentTimeMillis();
+            final int state = p.state;
+            if (state == CON_IDLE) {
+                long deadline = p.lastAccessTime + this.idleTimeoutMs;
+                if (time >= deadline) {
+                    if (this.semaphore.availablePermits() == this.getSemaphoreSize() && this.casIdleState(p, CON_CLOSED)) {
+                        this.removePooledConn(p, DESC_RM_IDLE);
+                        this.tryWakeupServantThread();
+                        continue;
+                    }
+                    deadline = time + wheel.getTickTime();//borrowers on semaphore or borrowed,check in next tick
+                }
+                if (supportHoldTimeout) deadline = Math.min(deadline, time + this.holdTimeoutMs);//may be borrowed before next check
+                wheel.schedule(p, deadline);
+            } else if (state == CON_USING) {
+                if (this.leakDetector != null) this.leakDetector.detect(p, false);
+                if (supportHoldTimeout) {
+                    long deadline = p.lastAccessTime + this.holdTimeoutMs;
+                    if (time >= deadline) {
+                        if (this.leakDetector != null) this.leakDetector.detect(p, true);//report holder before closing
+                        ProxyConnectionBase proxyInUsing = p.proxyInUsing;
+                        if (proxyInUsing != null) {
+                            oclose(proxyInUsing);
+                            wheel.schedule(p, time + wheel.getTickTime());
+                        } else {
+                            this.removePooledConn(p, DESC_RM_BAD);
+                            this.tryWakeupServantThread();
+                        }
+                    } else {
+                        wheel.schedule(p, deadline);
+                    }
+                } else {
+                    wheel.schedule(p, Math.max(p.lastAccessTime + this.idleTimeoutMs, time + wheel.getTickTime()));//earliest idle timeout after return
+                }
+            } else if (state == CON_CLOSED) {
+                this.removePooledConn(p, DESC_RM_CLOSED);
+                this.tryWakeupServantThread();
+            } else {//validating
+                wheel.schedule(p, time + wheel.getTickTime());
+            }
+        }
+    }
+
     //***************************************************************************************************************//
     //                                  4: Pool clear/close methods(5)                                               //                                                                                  //
     //***************************************************************************************************************//
@@ -892,17 +1628,19 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         this.interruptOnCreation();
         //3:clear all connections
         while (true) {
-            PooledConnection[] array = this.pooledArray;
-            for (PooledConnection p : array) {
+            AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+            for (int i = 0, l = array.length(); i < l; i++) {
+                PooledConnection p = array.get(i);
+                if (p == null) continue;
                 final int state = p.state;
                 if (state == CON_IDLE) {
-                    if (ConStUpd.compareAndSet(p, CON_IDLE, CON_CLOSED)) this.removePooledConn(p, source);
+                    if (this.casIdleState(p, CON_CLOSED)) this.removePooledConn(p, source);
                 } else if (state == CON_USING) {
                     ProxyConnectionBase proxyInUsing = p.proxyInUsing;
                     if (proxyInUsing != null) {
                         if (force || (supportHoldTimeout && System.currentTimeMillis() - p.lastAccessTime >= holdTimeoutMs)) {//force close or hold timeout
                             oclose(proxyInUsing);
-                            if (ConStUpd.compareAndSet(p, CON_IDLE, CON_CLOSED))
+                            if (this.casIdleState(p, CON_CLOSED))
                                 this.removePooledConn(p, source);
                         }
                     } else {
@@ -913,7 +1651,8 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
                 }
             } // for
 
-            if (this.pooledArray.length == 0) break;
+            if (this.pooledSize.get() == 0 && this.creatingCount.get() == 0) break;
+            if (this.creatingCount.get() > 0) this.interruptOnCreation();//creations out of lock may be started after clearing
             LockSupport.parkNanos(this.delayTimeForNextClearNs);//delay to clear remained pooled connections
         } // while
 
@@ -942,6 +1681,10 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
                 this.shutdownPoolThreads();
                 this.removeAllConnections(this.poolConfig.isForceCloseUsingOnClear(), DESC_RM_DESTROY);
                 if (networkTimeoutExecutor != null) this.networkTimeoutExecutor.shutdownNow();
+                if (aliveTestExecutor != null) this.aliveTestExecutor.shutdownNow();
+                if (refillExecutor != null) this.refillExecutor.shutdownNow();
+                if (asyncTimeoutExecutor != null) this.asyncTimeoutExecutor.shutdownNow();
+                if (asyncCompletionExecutor != null) this.asyncCompletionExecutor.shutdownNow();
 
                 try {
                     Runtime.getRuntime().removeShutdownHook(this.exitHook);
@@ -969,25 +1712,30 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         printRuntimeLog = indicator;
     }
 
-    //Method-5.2: the length of array stores pooled connections
+    //Method-5.2: count of filled slots in array
     public int getTotalSize() {
-        return this.pooledArray.length;
+        return this.pooledSize.get();
     }
 
     //Method-5.3: size of idle pooled connections
     public int getIdleSize() {
+        if (!this.enableExactMonitorScan) {
+            long idleSize = this.idleCount.sum();//maybe out of range under concurrent updates
+            return (int) Math.max(0L, Math.min(idleSize, this.pooledSize.get()));
+        }
+
         int idleSize = 0;
-        PooledConnection[] array = this.pooledArray;
-        //for (int i = 0, l = array.length; i < l; i++) {
-        for (PooledConnection p : array) {
-            if (p.state == CON_IDLE) idleSize++;
+        AtomicReferenceArray<PooledConnection> array = this.pooledArray;
+        for (int i = 0, l = array.length(); i < l; i++) {
+            PooledConnection p = array.get(i);
+            if (p != null && p.state == CON_IDLE) idleSize++;
         }
         return idleSize;
     }
 
     //Method-5.4: size of using pooled connections
     public int getUsingSize() {
-        return Math.max(this.pooledArray.length - this.getIdleSize(), 0);
+        return Math.max(this.pooledSize.get() - this.getIdleSize(), 0);
     }
 
     //Method-5.5: return pool name
@@ -1002,11 +1750,19 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
 
     //Method-5.7: acquired count of semaphore permit
     public int getSemaphoreAcquiredSize() {
-        return semaphoreSize - this.semaphore.availablePermits();
+        return this.getSemaphoreSize() - this.semaphore.availablePermits();
+    }
+
+    //Method-5.7.1: permit size of semaphore,it may be changed in adaptive mode
+    private int getSemaphoreSize() {
+        return this.adaptiveSemaphore != null ? this.adaptiveSemaphore.getPermits() : this.semaphoreSize;
     }
 
     //Method-5.8: count of waiters in queue
     public int getTransferWaitingSize() {
+        if (!this.enableExactMonitorScan)
+            return (int) Math.max(0L, this.transferWaitingCount.sum());
+
         int size = 0;
         for (Borrower borrower : this.waitQueue)
             if (borrower.state == null) size++;
@@ -1099,25 +1855,65 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         monitorVo.setUsingSize(totSize - idleSize);
         monitorVo.setSemaphoreWaitingSize(this.getSemaphoreWaitingSize());
         monitorVo.setTransferWaitingSize(this.getTransferWaitingSize());
-        monitorVo.setCreatingTime(this.pooledArrayLockedTimePoint);
+        monitorVo.setCreatingTime(this.getCreatingTime());
         monitorVo.setCreatingTimeout(this.isCreatingTimeout());
+        monitorVo.setBorrowLatencyPercentiles(this.getBorrowLatencyPercentiles());
+        monitorVo.setThreadLocalHitRate(this.getThreadLocalHitRate());
+        monitorVo.setAverageHoldTime(this.getAverageHoldTime());
+        monitorVo.setLongHoldingSites(this.getLongHoldingSites());
         return this.monitorVo;
     }
 
+    //Method-5.16: average hold time(milliseconds) of returned connections,zero when statistics disabled
+    public long getAverageHoldTime() {
+        ConnectionHoldStatistics statistics = this.holdStatistics;
+        return statistics != null ? statistics.getAverageHoldTime() : 0L;
+    }
+
+    //Method-5.17: top 10 borrow sites of long holders(sampled),value is max hold time(milliseconds)
+    public Map<String, Long> getLongHoldingSites() {
+        ConnectionHoldStatistics statistics = this.holdStatistics;
+        return statistics != null ? statistics.getLongHoldingSites(this.pooledArray) : Collections.<String, Long>emptyMap();
+    }
+
+    //Method-5.18: count of connections reported as leak,zero when leak detection disabled
+    public long getLeakCount() {
+        ConnectionLeakDetector detector = this.leakDetector;
+        return detector != null ? detector.getLeakCount() : 0L;
+    }
+
+    //Method-5.19: recent leak reports,empty when leak detection disabled
+    public List<String> getLeakReports() {
+        ConnectionLeakDetector detector = this.leakDetector;
+        return detector != null ? detector.getLeakReports() : Collections.<String>emptyList();
+    }
+
+    //Method-5.15: percentiles of borrowing phases,empty when statistics disabled
+    public Map<String, Long> getBorrowLatencyPercentiles() {
+        BorrowLatencyStatistics statistics = this.borrowStatistics;
+        return statistics != null ? statistics.getPercentiles() : Collections.<String, Long>emptyMap();
+    }
+
+    //Method-5.20: hit rate of thread local cache(hits/borrows),zero when statistics disabled
+    public double getThreadLocalHitRate() {
+        BorrowLatencyStatistics statistics = this.borrowStatistics;
+        return statistics != null ? statistics.getThreadLocalHitRate() : 0D;
+    }
+
 
     //***************************************************************************************************************//
     //                                  6: Pool inner interface/class(7)                                             //                                                                                  //
     //***************************************************************************************************************//
     //class-6.1:Thread factory
     private static final class PoolThreadThreadFactory implements ThreadFactory {
-        private final String poolName;
+        private final String threadName;
 
-        PoolThreadThreadFactory(String poolName) {
-            this.poolName = poolName;
+        PoolThreadThreadFactory(String threadName) {
+            this.threadName = threadName;
         }
 
         public Thread newThread(Runnable r) {
-            Thread th = new Thread(r, poolName + "-networkTimeoutRestThread");
+            Thread th = new Thread(r, threadName);
             th.setDaemon(true);
             return th;
         }
@@ -1134,7 +1930,7 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         public void run() {
             try {
                 pool.createInitConnections(pool.poolConfig.getInitialSize(), false);
-                pool.servantState.getAndSet(pool.pooledArray.length);
+                pool.servantState.getAndSet(pool.pooledSize.get());
                 if (!pool.waitQueue.isEmpty() && pool.servantState.get() == THREAD_WAITING && pool.servantState.compareAndSet(THREAD_WAITING, THREAD_WORKING))
                     LockSupport.unpark(pool);
             } catch (Throwable e) {
@@ -1143,6 +1939,29 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         }
     }
 
+    //class-6.2.1: A task running on creator threads to create initial connections in parallel
+    private static final class PoolInitCreateTask implements Callable<Object> {
+        private final FastConnectionPool pool;
+        private final AtomicInteger remainSize;
+
+        PoolInitCreateTask(FastConnectionPool pool, AtomicInteger remainSize) {
+            this.pool = pool;
+            this.remainSize = remainSize;
+        }
+
+        public Object call() throws SQLException {
+            try {
+                while (remainSize.getAndDecrement() > 0) {
+                    if (pool.createPooledConn(CON_IDLE) == null) break;//pool full
+                }
+                return null;
+            } catch (SQLException e) {
+                remainSize.set(0);//stop other creator threads
+                throw e;
+            }
+        }
+    }
+
     //class-6.3: A timed thread to scan idle connections and close them
     private static final class IdleTimeoutScanThread extends Thread {
         private final FastConnectionPool pool;
@@ -1154,11 +1973,18 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         public void run() {
             final AtomicInteger idleScanState = pool.idleScanState;
             final long checkTimeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(this.pool.poolConfig.getTimerCheckInterval());
+            long lastScanTime = System.nanoTime();
             while (idleScanState.get() == THREAD_WORKING) {
-                LockSupport.parkNanos(checkTimeIntervalNanos);
+                ConnectionTimingWheel wheel = pool.timingWheel;//scan in interval is kept for checks not on wheel(creation timeout,leak,bulk alive test)
+                LockSupport.parkNanos(wheel != null ? TimeUnit.MILLISECONDS.toNanos(wheel.getTickTime()) : checkTimeIntervalNanos);
                 try {
-                    if (pool.poolState == POOL_READY)
-                        pool.closeIdleTimeoutConnection();
+                    if (pool.poolState == POOL_READY) {
+                        if (wheel != null) pool.closeTimeoutConnectionsOnWheel(wheel);
+                        if (wheel == null || System.nanoTime() - lastScanTime >= checkTimeIntervalNanos) {
+                            pool.closeIdleTimeoutConnection();
+                            lastScanTime = System.nanoTime();
+                        }
+                    }
                 } catch (Throwable e) {
                     Log.warn("BeeCP({})Error at closing idle timeout connections", this.pool.poolName, e);
                 }
@@ -1166,6 +1992,96 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         }
     }
 
+    //class-6.3.1: A timed task to abort an async borrower when it is timeout in wait queue
+    private static final class AsyncBorrowTimeoutTask implements Runnable {
+        private final FastConnectionPool pool;
+        private final Borrower borrower;
+
+        AsyncBorrowTimeoutTask(FastConnectionPool pool, Borrower borrower) {
+            this.pool = pool;
+            this.borrower = borrower;
+        }
+
+        public void run() {
+            pool.abortAsyncBorrower(borrower, new ConnectionGetTimeoutException("Wait timeout for a released connection"));
+        }
+    }
+
+    //class-6.3.2: A timed thread to test alive on idle connections in background
+    private static final class AliveTestThread extends Thread {
+        private final FastConnectionPool pool;
+
+        AliveTestThread(FastConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        public void run() {
+            final AtomicInteger aliveTestState = pool.aliveTestState;
+            while (aliveTestState.get() == THREAD_WORKING) {
+                long testInterval = pool.aliveTestIntervalMs;//maybe disabled after restart with new configuration
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(testInterval > 0L ? testInterval : pool.poolConfig.getTimerCheckInterval()));
+                try {
+                    if (pool.poolState == POOL_READY && pool.aliveTestIntervalMs > 0L)
+                        pool.testIdleConnections();
+                } catch (Throwable e) {
+                    Log.warn("BeeCP({})Error at alive test on idle connections", this.pool.poolName, e);
+                }
+            }
+        }
+    }
+
+    //class-6.3.3: A task to test alive on a validating connection in bulk mode
+    private static final class AliveTestTask implements Callable<Boolean> {
+        private final PooledConnectionAliveTest aliveTest;
+        private final PooledConnection p;
+
+        AliveTestTask(PooledConnectionAliveTest aliveTest, PooledConnection p) {
+            this.aliveTest = aliveTest;
+            this.p = p;
+        }
+
+        public Boolean call() {
+            return aliveTest.isAlive(p);
+        }
+    }
+
+    //class-6.3.4: A task to create a connection for waiters in batch refill
+    private static final class RefillCreateTask implements Runnable {
+        private final FastConnectionPool pool;
+
+        RefillCreateTask(FastConnectionPool pool) {
+            this.pool = pool;
+        }
+
+        public void run() {
+            try {
+                PooledConnection p = pool.searchOrCreate();
+                if (p != null) pool.recycle(p);//transfer to a waiter
+            } catch (Throwable e) {
+                pool.transferException(e);
+            } finally {
+                pool.refillTaskCount.decrementAndGet();
+            }
+        }
+    }
+
+    //class-6.3.5: A task to test and complete a caught connection for an async borrower
+    private static final class AsyncTransferTask implements Runnable {
+        private final FastConnectionPool pool;
+        private final Borrower borrower;
+        private final PooledConnection p;
+
+        AsyncTransferTask(FastConnectionPool pool, Borrower borrower, PooledConnection p) {
+            this.pool = pool;
+            this.borrower = borrower;
+            this.p = p;
+        }
+
+        public void run() {
+            pool.transferToAsyncBorrower(borrower, p);
+        }
+    }
+
     //class-6.4:JVM exit hook
     private static class ConnectionPoolHook extends Thread {
         private final FastConnectionPool pool;
@@ -1195,34 +2111,78 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
         }
     }
 
-    //class-6.6: threadLocal caches the last used connections of borrowers(only cache one per borrower)
+    //class-6.6: threadLocal caches the recently used connections of borrowers(size of cache is configurable)
     private static final class BorrowerThreadLocal extends ThreadLocal<WeakReference<Borrower>> {
+        private final int cacheSize;
+
+        BorrowerThreadLocal(int cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+
         protected WeakReference<Borrower> initialValue() {
-            return new WeakReference<>(new Borrower());
+            return new WeakReference<>(new Borrower(cacheSize));
         }
     }
 
     //class-6.7: alive test on borrowed connections by executing a SQL
     private static final class PooledConnectionAliveTestBySql implements PooledConnectionAliveTest {
+        //probe sql without side effect,such as 'select 1','select 1 from dual'
+        private static final Pattern READ_ONLY_PROBE_PATTERN = Pattern.compile("^SELECT\\s+[\\w']+(\\s+FROM\\s+DUAL)?\\s*;?$", Pattern.CASE_INSENSITIVE);
         private final String testSql;
         private final String poolName;
         private final boolean printRuntimeLog;
         private final int validTestTimeout;
-        private final boolean isDefaultAutoCommit;
         private final boolean supportQueryTimeout;
+        private final boolean isReadOnlyProbe;
 
         private PooledConnectionAliveTestBySql(String poolName, String testSql, int validTestTimeout,
-                                               boolean isDefaultAutoCommit, boolean supportQueryTimeout, boolean printRuntimeLog) {
+                                               boolean supportQueryTimeout, boolean printRuntimeLog) {
             this.poolName = poolName;
             this.testSql = testSql;
             this.printRuntimeLog = printRuntimeLog;
             this.validTestTimeout = validTestTimeout;
-            this.isDefaultAutoCommit = isDefaultAutoCommit;//default
             this.supportQueryTimeout = supportQueryTimeout;
+            this.isReadOnlyProbe = READ_ONLY_PROBE_PATTERN.matcher(testSql.trim()).matches();
+        }
+
+        public boolean isAlive(PooledConnection p) {
+            return this.isReadOnlyProbe ? this.isAliveByProbe(p) : this.isAliveInTransaction(p);
+        }
+
+        //execute probe sql on a cached statement of connection,rollback only when connection in transaction mode
+        private boolean isAliveByProbe(PooledConnection p) {
+            Connection rawConn = p.rawConn;
+            try {
+                Statement st = p.aliveTestStatement;
+                if (st == null) {
+                    st = rawConn.createStatement();
+                    if (this.supportQueryTimeout) {
+                        try {
+                            st.setQueryTimeout(validTestTimeout);
+                        } catch (Throwable e) {
+                            if (printRuntimeLog)
+                                Log.warn("BeeCP({})called failed on method 'setQueryTimeout' in sql tester", poolName, e);
+                        }
+                    }
+                    p.aliveTestStatement = st;
+                }
+
+                if (st.execute(this.testSql)) {
+                    ResultSet rs = st.getResultSet();
+                    if (rs != null) oclose(rs);
+                }
+                if (!p.curAutoCommit) rawConn.rollback();//end transaction started by probe
+                p.lastAccessTime = System.currentTimeMillis();
+                return true;
+            } catch (Throwable e) {
+                if (printRuntimeLog)
+                    Log.warn("BeeCP({})SQL tested failed on borrowed connection", poolName, e);
+                return false;
+            }
         }
 
         //method must work in transaction and rollback final to avoid testing dirty data into db
-        public boolean isAlive(PooledConnection p) {//
+        private boolean isAliveInTransaction(PooledConnection p) {
             Statement st = null;
             boolean changed = false;
             Connection rawConn = p.rawConn;
@@ -1230,7 +2190,7 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
 
             try {
                 //step1: setAutoCommit
-                if (this.isDefaultAutoCommit) {
+                if (p.curAutoCommit) {
                     rawConn.setAutoCommit(false);
                     changed = true;
                 }
@@ -1272,4 +2232,32 @@ public final class FastConnectionPool extends Thread implements BeeConnectionPoo
             return checkPassed;
         }
     }
+
+    //class-6.8: alive test on borrowed connections by a customized test
+    private static final class PooledConnectionAliveTestByCustom implements PooledConnectionAliveTest {
+        private final String poolName;
+        private final BeeConnectionAliveTest aliveTest;
+        private final int validTestTimeout;
+        private final boolean printRuntimeLog;
+
+        private PooledConnectionAliveTestByCustom(String poolName, BeeConnectionAliveTest aliveTest, int validTestTimeout, boolean printRuntimeLog) {
+            this.poolName = poolName;
+            this.aliveTest = aliveTest;
+            this.validTestTimeout = validTestTimeout;
+            this.printRuntimeLog = printRuntimeLog;
+        }
+
+        public boolean isAlive(PooledConnection p) {
+            try {
+                if (this.aliveTest.isAlive(p.rawConn, this.validTestTimeout)) {
+                    p.lastAccessTime = System.currentTimeMillis();
+                    return true;
+                }
+            } catch (Throwable e) {
+                if (printRuntimeLog)
+                    Log.warn("BeeCP({})alive test failed on borrowed connection", poolName, e);
+            }
+            return false;
+        }
+    }
 }
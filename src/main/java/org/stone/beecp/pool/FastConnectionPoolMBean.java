@@ -9,6 +9,9 @@
  */
 package org.stone.beecp.pool;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Pool JMX Bean interface.
  *
@@ -38,6 +41,24 @@ public interface FastConnectionPoolMBean {
     //return waiter size for transferred connection
     int getTransferWaitingSize();
 
+    //return percentiles of borrowing phases(nanoseconds),empty if statistics disabled
+    Map<String, Long> getBorrowLatencyPercentiles();
+
+    //return hit rate of thread local cache(hits/borrows),zero if statistics disabled
+    double getThreadLocalHitRate();
+
+    //return average hold time(milliseconds) of returned connections,zero if statistics disabled
+    long getAverageHoldTime();
+
+    //return top borrow sites(sampled) of long holders,empty if statistics disabled
+    Map<String, Long> getLongHoldingSites();
+
+    //return count of connections reported as leak,zero if leak detection disabled
+    long getLeakCount();
+
+    //return recent leak reports(hold time and borrow site),empty if leak detection disabled
+    List<String> getLeakReports();
+
     //set pool info debug switch
     void setPrintRuntimeLog(boolean indicator);
 
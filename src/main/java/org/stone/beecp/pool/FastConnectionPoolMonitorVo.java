@@ -11,6 +11,9 @@ package org.stone.beecp.pool;
 
 import org.stone.beecp.BeeConnectionPoolMonitorVo;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * Connection pool Monitor impl
  *
@@ -35,6 +38,10 @@ public class FastConnectionPoolMonitorVo implements BeeConnectionPoolMonitorVo {
     private int transferWaitingSize;
     private long creatingTime;
     private boolean isCreatingTimeout;
+    private Map<String, Long> borrowLatencyPercentiles = Collections.emptyMap();
+    private double threadLocalHitRate;
+    private long averageHoldTime;
+    private Map<String, Long> longHoldingSites = Collections.emptyMap();
 
     public String getDsId() {
         return dsId;
@@ -156,4 +163,36 @@ public class FastConnectionPoolMonitorVo implements BeeConnectionPoolMonitorVo {
         this.isCreatingTimeout = creatingTimeout;
     }
 
+    public Map<String, Long> getBorrowLatencyPercentiles() {
+        return borrowLatencyPercentiles;
+    }
+
+    void setBorrowLatencyPercentiles(Map<String, Long> borrowLatencyPercentiles) {
+        this.borrowLatencyPercentiles = borrowLatencyPercentiles;
+    }
+
+    public double getThreadLocalHitRate() {
+        return threadLocalHitRate;
+    }
+
+    void setThreadLocalHitRate(double threadLocalHitRate) {
+        this.threadLocalHitRate = threadLocalHitRate;
+    }
+
+    public long getAverageHoldTime() {
+        return averageHoldTime;
+    }
+
+    void setAverageHoldTime(long averageHoldTime) {
+        this.averageHoldTime = averageHoldTime;
+    }
+
+    public Map<String, Long> getLongHoldingSites() {
+        return longHoldingSites;
+    }
+
+    void setLongHoldingSites(Map<String, Long> longHoldingSites) {
+        this.longHoldingSites = longHoldingSites;
+    }
+
 }
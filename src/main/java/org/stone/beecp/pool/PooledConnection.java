@@ -11,12 +11,17 @@ package org.stone.beecp.pool;
 
 import org.stone.beecp.BeeConnectionPredicate;
 import org.stone.beecp.pool.exception.ConnectionRecycleException;
+import org.stone.tools.atomic.IntegerFieldUpdaterImpl;
+import org.stone.tools.atomic.ReferenceFieldUpdaterImpl;
 
 import javax.transaction.xa.XAResource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static org.stone.beecp.pool.ConnectionPoolStatics.*;
 import static org.stone.tools.BeanUtil.CommonLog;
@@ -30,6 +35,8 @@ import static org.stone.tools.CommonUtil.isNotBlank;
  */
 final class PooledConnection implements Cloneable {
     private static final boolean[] FALSE = new boolean[6];
+    private static final AtomicIntegerFieldUpdater<PooledConnection> StmRegistryLockUpd = IntegerFieldUpdaterImpl.newUpdater(PooledConnection.class, "stmRegistryLock");
+    private static final AtomicReferenceFieldUpdater<PooledConnection, ProxyConnectionBase> ProxyInUsingUpd = ReferenceFieldUpdaterImpl.newUpdater(PooledConnection.class, ProxyConnectionBase.class, "proxyInUsing");
     final boolean defaultAutoCommit;
     final int defaultTransactionIsolation;
     final boolean defaultReadOnly;
@@ -42,6 +49,8 @@ final class PooledConnection implements Cloneable {
     private final boolean defaultSchemaIsNotBlank;
     private final boolean supportNetworkTimeoutInd;
     private final ThreadPoolExecutor networkTimeoutExecutor;
+    private final boolean supportClearWarningsInd;
+    private final boolean forceClearWarnings;//false:clear warnings on return only when borrower got warnings
     private final FastConnectionPool pool;
     private final boolean enableDefaultOnCatalog;
     private final boolean enableDefaultOnSchema;
@@ -51,20 +60,32 @@ final class PooledConnection implements Cloneable {
     private final List<Integer> sqlExceptionCodeList;
     private final List<String> sqlExceptionStateList;
     private final BeeConnectionPredicate predicate;
+    private final int psCacheSize;
+    private final boolean lazyReset;//true:property resets are deferred to next borrowing
 
     long creationTime;//milliseconds
     Connection rawConn;//maybe from XAConnection
     XAResource rawXaRes;//from XAConnection
     volatile int state;
     volatile long lastAccessTime;//milliseconds
+    volatile int indexed;//1:indexed in idle index of pool
+    int slotIndex;//index of filled slot in pool array
+    long wheelTick;//tick to check timeout on timing wheel,only accessed by idle scan thread
+    long borrowTime;//nanoseconds,set on borrowing when hold time statistics or leak detection enabled
+    Throwable borrowStack;//sampled stack of borrower
+    boolean leakReported;
     int openStmSize;
     boolean curAutoCommit;
     boolean commitDirtyInd;
-    ProxyConnectionBase proxyInUsing;//default is null
+    boolean warningsDirtyInd;//true:warnings got from connection by borrower
+    volatile ProxyConnectionBase proxyInUsing;//default is null
+    PreparedStatementCache psCache;//null when statement cache disabled
+    Statement aliveTestStatement;//cached statement to execute probe sql in alive test
 
     private int resetCnt;//reset count
     private boolean[] resetFlags;
     private ProxyStatementBase[] openStatements;
+    private volatile int stmRegistryLock;//1:statement registry in updating
 
     //template pooled connection to create other pooled connections with clone way
     PooledConnection(
@@ -90,10 +111,15 @@ final class PooledConnection implements Cloneable {
             boolean supportNetworkTimeoutInd,
             int defaultNetworkTimeout,
             ThreadPoolExecutor networkTimeoutExecutor,
-            //7:others
+            //7:warnings clearing
+            boolean supportClearWarningsInd,
+            boolean forceClearWarnings,
+            //8:others
             List<Integer> sqlExceptionCodeList,
             List<String> sqlExceptionStateList,
-            BeeConnectionPredicate predicate) {
+            BeeConnectionPredicate predicate,
+            int psCacheSize,
+            boolean lazyReset) {
 
         //1:defaultAutoCommit
         this.enableDefaultOnAutoCommit = enableDefaultOnAutoCommit;
@@ -118,10 +144,15 @@ final class PooledConnection implements Cloneable {
         this.supportNetworkTimeoutInd = supportNetworkTimeoutInd;
         this.defaultNetworkTimeout = defaultNetworkTimeout;
         this.networkTimeoutExecutor = networkTimeoutExecutor;
-        //7:others
+        //7:warnings clearing
+        this.supportClearWarningsInd = supportClearWarningsInd;
+        this.forceClearWarnings = forceClearWarnings;
+        //8:others
         this.sqlExceptionCodeList = sqlExceptionCodeList;
         this.sqlExceptionStateList = sqlExceptionStateList;
         this.predicate = predicate;
+        this.psCacheSize = psCacheSize;
+        this.lazyReset = lazyReset;
 
         this.pool = pool;
         this.curAutoCommit = defaultAutoCommit;
@@ -134,6 +165,7 @@ final class PooledConnection implements Cloneable {
         p.rawXaRes = rawXaRes;
         p.resetFlags = FALSE.clone();
         p.openStatements = new ProxyStatementBase[10];
+        p.psCache = this.psCacheSize > 0 ? new PreparedStatementCache(this.psCacheSize) : null;
         p.creationTime = System.currentTimeMillis();
         p.lastAccessTime = p.creationTime;
         return p;
@@ -157,6 +189,7 @@ final class PooledConnection implements Cloneable {
         p.rawXaRes = rawXaRes;
         p.resetFlags = FALSE.clone();
         p.openStatements = new ProxyStatementBase[10];
+        p.psCache = this.psCacheSize > 0 ? new PreparedStatementCache(this.psCacheSize) : null;
         p.creationTime = System.currentTimeMillis();
         p.lastAccessTime = p.creationTime;
         return p;
@@ -173,12 +206,23 @@ final class PooledConnection implements Cloneable {
         pool.abandonOnReturn(this, DESC_RM_ABORT);
     }
 
+    /**
+     * detach proxy from this connection,only one of concurrent closing(close or abort) wins,replace monitor lock on proxy
+     *
+     * @param proxy to be detached
+     * @return true that proxy detached by current thread
+     */
+    boolean casClearProxyInUsing(ProxyConnectionBase proxy) {
+        return ProxyInUsingUpd.compareAndSet(this, proxy, null);
+    }
+
     /**
      * return borrowed connection to pool,method called by {@link ProxyConnectionBase#close}
      *
      * @throws SQLException when error occurs during recycle
      */
     void recycleSelf() throws SQLException {
+        this.pool.traceReturned(this);
         try {
             this.proxyInUsing = null;
             this.resetRawConn();
@@ -203,6 +247,8 @@ final class PooledConnection implements Cloneable {
         } catch (Throwable e) {
             if (pool.isPrintRuntimeLog()) CommonLog.warn("BeeCP({})Resetting connection failed", pool.getPoolName(), e);
         } finally {
+            if (this.psCache != null) this.psCache.clear();
+            if (this.aliveTestStatement != null) oclose(this.aliveTestStatement);
             oclose(this.rawConn);
             this.rawXaRes = null;
         }
@@ -211,36 +257,65 @@ final class PooledConnection implements Cloneable {
     //***************************************************************************************************************//
     //                                     3:statement cache maintenance                                             //                                                                                  //
     //***************************************************************************************************************//
+    //open statements are stored in array with their slot index,a cas guard keeps registry safe on closing in other threads
+    private void lockStatementRegistry() {
+        while (!StmRegistryLockUpd.compareAndSet(this, 0, 1))
+            Thread.yield();
+    }
+
+    private void unlockStatementRegistry() {
+        this.stmRegistryLock = 0;
+    }
+
     void registerStatement(ProxyStatementBase s) {
-        if (this.openStmSize == this.openStatements.length) {//full
-            ProxyStatementBase[] array = new ProxyStatementBase[this.openStmSize << 1];
-            System.arraycopy(this.openStatements, 0, array, 0, this.openStmSize);
-            this.openStatements = array;
+        this.lockStatementRegistry();
+        try {
+            if (this.openStmSize == this.openStatements.length) {//full
+                ProxyStatementBase[] array = new ProxyStatementBase[this.openStmSize << 1];
+                System.arraycopy(this.openStatements, 0, array, 0, this.openStmSize);
+                this.openStatements = array;
+            }
+            s.registryIndex = this.openStmSize;
+            this.openStatements[this.openStmSize++] = s;
+        } finally {
+            this.unlockStatementRegistry();
         }
-        this.openStatements[this.openStmSize++] = s;
     }
 
     void unregisterStatement(ProxyStatementBase s) {
-        for (int i = this.openStmSize - 1; i >= 0; i--) {
-            if (s == this.openStatements[i]) {
-                int m = this.openStmSize - i - 1;
-                if (m > 0) System.arraycopy(this.openStatements, i + 1, this.openStatements, i, m);//move ahead
-                this.openStatements[--this.openStmSize] = null; // clear to let GC do its work
-                return;
+        this.lockStatementRegistry();
+        try {
+            int i = s.registryIndex;
+            if (i < this.openStmSize && this.openStatements[i] == s) {//move the last one to slot of removed(O(1))
+                ProxyStatementBase last = this.openStatements[--this.openStmSize];
+                this.openStatements[i] = last;
+                last.registryIndex = i;
+                this.openStatements[this.openStmSize] = null;// clear to let GC do its work
             }
+        } finally {
+            this.unlockStatementRegistry();
         }
     }
 
+    //statements are taken out under cas guard,then closed after guard released(closing may block on driver I/O)
     void clearStatement() {
-        for (int i = 0; i < this.openStmSize; i++) {
-            ProxyStatementBase s = this.openStatements[i];
-            if (s != null) {
-                s.registered = false;
+        ProxyStatementBase[] statements;
+        this.lockStatementRegistry();
+        try {
+            if (this.openStmSize == 0) return;
+            statements = new ProxyStatementBase[this.openStmSize];
+            System.arraycopy(this.openStatements, 0, statements, 0, this.openStmSize);
+            for (int i = 0; i < this.openStmSize; i++) {
+                statements[i].registered = false;
                 this.openStatements[i] = null;
-                oclose(s);
             }
+            this.openStmSize = 0;
+        } finally {
+            this.unlockStatementRegistry();
         }
-        this.openStmSize = 0;
+
+        for (ProxyStatementBase s : statements)
+            oclose(s);
     }
 
     //***************************************************************************************************************//
@@ -294,11 +369,42 @@ final class PooledConnection implements Cloneable {
         }
     }
 
+    //true if property resets deferred from last return(lazy reset mode)
+    boolean hasPendingReset() {
+        return this.resetCnt > 0;
+    }
+
+    /**
+     * apply property resets deferred from last return,method called by pool on borrowing in lazy reset mode
+     *
+     * @return true if no pending resets or applied successfully;false,connection is bad
+     */
+    boolean applyPendingReset() {
+        if (this.resetCnt == 0) return true;
+        try {
+            this.resetProperties();
+            return true;
+        } catch (Throwable e) {
+            if (pool.isPrintRuntimeLog())
+                CommonLog.warn("BeeCP({})Pending resets failed on borrowed connection", pool.getPoolName(), e);
+            return false;
+        }
+    }
+
     private void resetRawConn() throws SQLException {
-        if (this.commitDirtyInd) { //Roll back when commit dirty
+        if (this.commitDirtyInd) { //Roll back when commit dirty(never deferred,locks in transaction must be released)
             this.rawConn.rollback();
             this.commitDirtyInd = false;
         }
+        if (this.resetCnt > 0 && !this.lazyReset) this.resetProperties();//pending resets skipped on closing in lazy mode
+        //clear warnings
+        if (this.supportClearWarningsInd && (this.forceClearWarnings || this.warningsDirtyInd)) {
+            this.rawConn.clearWarnings();
+            this.warningsDirtyInd = false;
+        }
+    }
+
+    private void resetProperties() throws SQLException {
         //reset begin
         if (this.resetCnt > 0) {
             if (this.resetFlags[PS_AUTO]) {//reset autoCommit
@@ -321,7 +427,5 @@ final class PooledConnection implements Cloneable {
             this.resetCnt = 0;
             System.arraycopy(PooledConnection.FALSE, 0, this.resetFlags, 0, 6);
         }//reset end
-        //clear warnings
-        this.rawConn.clearWarnings();
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded affinity cache on last borrowed connections,it replaces thread local cache in virtual thread mode.
+ * Slots are mapped with hash of thread id,a borrower tries the connection in its slot firstly,so no objects
+ * are attached to threads(virtual threads may be in millions and short-lived).A slot may be overwritten by other
+ * threads in same hash,stale entries(connections not in idle) are skipped by state check of caller.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class PooledConnectionAffinityCache {
+    private final int mask;
+    private final AtomicReferenceArray<PooledConnection> slots;
+
+    PooledConnectionAffinityCache(int maxSize) {
+        int size = 1;
+        while (size < maxSize << 2) size <<= 1;//four times of pool size to reduce collision
+
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    private static int hash(Thread thread) {
+        long id = thread.getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //get last borrowed connection of current thread,caller need cas its state to hold it
+    PooledConnection get() {
+        return this.slots.get(hash(Thread.currentThread()) & mask);
+    }
+
+    //store a borrowed connection to slot of current thread
+    void set(PooledConnection p) {
+        this.slots.lazySet(hash(Thread.currentThread()) & mask, p);
+    }
+}
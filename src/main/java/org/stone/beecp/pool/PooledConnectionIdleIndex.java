@@ -0,0 +1,77 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import org.stone.tools.atomic.IntegerFieldUpdaterImpl;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import static org.stone.beecp.pool.ConnectionPoolStatics.CON_IDLE;
+import static org.stone.tools.CommonUtil.NCPU;
+
+/**
+ * A striped index on idle connections,borrowers poll idle connections from a stripe mapped with their thread hash
+ * firstly,then steal from other stripes.A connection is indexed once at most,stale entries(connections not in idle)
+ * are dropped when polled out.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class PooledConnectionIdleIndex {
+    private static final AtomicIntegerFieldUpdater<PooledConnection> IndexedUpd = IntegerFieldUpdaterImpl.newUpdater(PooledConnection.class, "indexed");
+    private final int mask;
+    private final ConcurrentLinkedQueue<PooledConnection>[] stripes;
+
+    PooledConnectionIdleIndex(int maxSize) {
+        int size = 1;
+        int stripeSize = Math.min(Math.max(NCPU, 1), Math.max(maxSize, 1));
+        while (size < stripeSize) size <<= 1;
+
+        this.mask = size - 1;
+        this.stripes = new ConcurrentLinkedQueue[size];
+        for (int i = 0; i < size; i++)
+            this.stripes[i] = new ConcurrentLinkedQueue<>();
+    }
+
+    private static int hash(Thread thread) {
+        long id = thread.getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * put an idle connection to stripe of current thread,ignore it if it has been indexed
+     *
+     * @param p is an idle connection
+     */
+    void offer(PooledConnection p) {
+        if (p.indexed == 0 && IndexedUpd.compareAndSet(p, 0, 1))
+            this.stripes[hash(Thread.currentThread()) & mask].offer(p);
+    }
+
+    /**
+     * poll out an idle connection,caller need cas its state to hold it
+     *
+     * @return an idle connection,null if not found in all stripes
+     */
+    PooledConnection poll() {
+        int start = hash(Thread.currentThread());
+        for (int i = 0, l = this.stripes.length; i < l; i++) {
+            ConcurrentLinkedQueue<PooledConnection> stripe = this.stripes[(start + i) & mask];
+            PooledConnection p;
+            while ((p = stripe.poll()) != null) {
+                p.indexed = 0;//reset before state read,a releaser sets idle state before reading this flag
+                if (p.state == CON_IDLE) return p;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.pool;
+
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import static org.stone.beecp.pool.ConnectionPoolStatics.oclose;
+
+/**
+ * A LRU cache of raw prepared statements(include callable statements) on a pooled connection.A statement is taken out
+ * from cache when prepared by a proxy connection and put back on its proxy closing,so a cached statement is used by
+ * one proxy at a time;raw statements are closed on eviction or on connection removal,closing is out of cache monitor
+ * as it may block on driver I/O(virtual threads pinned in monitor).
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+final class PreparedStatementCache {
+    private final int capacity;
+    private final LinkedHashMap<Object, PreparedStatement> statementMap;//insertion order is LRU order
+
+    PreparedStatementCache(int capacity) {
+        this.capacity = capacity;
+        this.statementMap = new LinkedHashMap<>(Math.min(capacity, 64) * 2);
+    }
+
+    //***************************************************************************************************************//
+    //                                  1: key creation(call by generated proxy connection)                          //
+    //***************************************************************************************************************//
+    static Object createKey(boolean call, String sql) {
+        return call ? new StatementKey(true, sql, 0, null, null) : sql;//sql as key of the most common preparation
+    }
+
+    static Object createKey(boolean call, String sql, int autoGeneratedKeys) {
+        return new StatementKey(call, sql, 1, new int[]{autoGeneratedKeys}, null);
+    }
+
+    //arrays are copied,caller may change them after preparation
+    static Object createKey(boolean call, String sql, int[] columnIndexes) {
+        return new StatementKey(call, sql, 2, columnIndexes != null ? columnIndexes.clone() : null, null);
+    }
+
+    static Object createKey(boolean call, String sql, String[] columnNames) {
+        return new StatementKey(call, sql, 3, null, columnNames != null ? columnNames.clone() : null);
+    }
+
+    static Object createKey(boolean call, String sql, int resultSetType, int resultSetConcurrency) {
+        return new StatementKey(call, sql, 4, new int[]{resultSetType, resultSetConcurrency}, null);
+    }
+
+    static Object createKey(boolean call, String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) {
+        return new StatementKey(call, sql, 5, new int[]{resultSetType, resultSetConcurrency, resultSetHoldability}, null);
+    }
+
+    //***************************************************************************************************************//
+    //                                  2: cache maintenance                                                         //
+    //***************************************************************************************************************//
+    //take out a cached statement,return null if not found
+    synchronized PreparedStatement take(Object key) {
+        return this.statementMap.remove(key);
+    }
+
+    //put back a statement on its proxy closing,return false if a same key statement exists in cache
+    boolean offer(Object key, PreparedStatement s) {
+        PreparedStatement eldest = null;
+        synchronized (this) {
+            if (this.statementMap.containsKey(key)) return false;
+            this.statementMap.put(key, s);
+            if (this.statementMap.size() > this.capacity) {//evict eldest
+                Iterator<PreparedStatement> iterator = this.statementMap.values().iterator();
+                eldest = iterator.next();
+                iterator.remove();
+            }
+        }
+        if (eldest != null) oclose(eldest);
+        return true;
+    }
+
+    synchronized int size() {
+        return this.statementMap.size();
+    }
+
+    //close all cached statements
+    void clear() {
+        PreparedStatement[] statements;
+        synchronized (this) {
+            statements = this.statementMap.values().toArray(new PreparedStatement[this.statementMap.size()]);
+            this.statementMap.clear();
+        }
+        for (PreparedStatement s : statements)
+            oclose(s);
+    }
+
+    //key of cached statement,made up of sql and parameters of preparation
+    private static final class StatementKey {
+        private final boolean call;
+        private final String sql;
+        private final int shape;//identify which prepare method
+        private final int[] ints;
+        private final String[] names;
+        private final int hashCode;
+
+        StatementKey(boolean call, String sql, int shape, int[] ints, String[] names) {
+            this.call = call;
+            this.sql = sql;
+            this.shape = shape;
+            this.ints = ints;
+            this.names = names;
+
+            int h = sql != null ? sql.hashCode() : 0;
+            h = 31 * h + shape;
+            h = 31 * h + Arrays.hashCode(ints);
+            h = 31 * h + Arrays.hashCode(names);
+            this.hashCode = call ? ~h : h;
+        }
+
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof StatementKey)) return false;
+            StatementKey other = (StatementKey) o;
+            return this.hashCode == other.hashCode
+                    && this.call == other.call
+                    && this.shape == other.shape
+                    && (this.sql != null ? this.sql.equals(other.sql) : other.sql == null)
+                    && Arrays.equals(this.ints, other.ints)
+                    && Arrays.equals(this.names, other.names);
+        }
+    }
+}
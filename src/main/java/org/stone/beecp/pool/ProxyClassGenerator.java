@@ -271,10 +271,10 @@ final class ProxyClassGenerator {
                 methodBuffer.append("return new ProxyStatement(raw." + methodName + "($$),this,p);");
             } else if (ctMethod.getReturnType() == ctPreparedStatementClass) {
                 newCtMethod.setModifiers(Modifier.PUBLIC | Modifier.FINAL);
-                methodBuffer.append("return new ProxyPsStatement(raw." + methodName + "($$),this,p);");
+                appendCachedStatementCreation(methodBuffer, methodName, "PreparedStatement", "ProxyPsStatement", false);
             } else if (ctMethod.getReturnType() == ctCallableStatementClass) {
                 newCtMethod.setModifiers(Modifier.PUBLIC | Modifier.FINAL);
-                methodBuffer.append("return new ProxyCsStatement(raw." + methodName + "($$),this,p);");
+                appendCachedStatementCreation(methodBuffer, methodName, "CallableStatement", "ProxyCsStatement", true);
             } else if (ctMethod.getReturnType() == ctDatabaseMetaDataClass) {
                 methodBuffer.append("return new ProxyDatabaseMetaData(raw." + methodName + "($$),p);");
             } else if (methodName.equals("close")) {
@@ -293,6 +293,18 @@ final class ProxyClassGenerator {
         }
     }
 
+    //statement is taken from cache of pooled connection when cache enabled,otherwise prepared by raw connection
+    private static void appendCachedStatementCreation(StringBuilder methodBuffer, String methodName, String statementType, String proxyType, boolean call) {
+        methodBuffer.append("if(p.psCache!=null){")
+                .append("Object k=PreparedStatementCache.createKey(" + call + ",$$);")
+                .append(statementType + " s=(" + statementType + ")p.psCache.take(k);")
+                .append("if(s==null)s=raw." + methodName + "($$);")
+                .append(proxyType + " ps=new " + proxyType + "(s,this,p);")
+                .append("ps.cacheKey=k;")
+                .append("return ps;}")
+                .append("return new " + proxyType + "(raw." + methodName + "($$),this,p);");
+    }
+
     private static void createProxyStatementClass(ClassPool classPool, CtClass statementProxyClass, CtClass ctStatementClass, CtClass ctStatementSuperClass) throws Exception {
         LinkedList<CtMethod> linkedList = new LinkedList<>();
         HashSet<String> notNeedAddProxyMethods = findMethodsNotNeedProxy(ctStatementSuperClass);
@@ -414,7 +426,9 @@ final class ProxyClassGenerator {
             } else {
                 CtClass ctReturnType = ctMethod.getReturnType();
                 if (ctReturnType == ctResultSetMetaDataClass) {
-                    methodBuffer.append("return new ProxyResultSetMetaData(raw." + methodName + "($$),this,p);");
+                    methodBuffer.append("checkClosed();")//cached metaData proxy is not reachable after closed
+                            .append("if(metaData==null)metaData=new ProxyResultSetMetaData(raw." + methodName + "($$),this,p);")
+                            .append("return metaData;");
                 } else if (ctReturnType == CtClass.voidType) {
                     methodBuffer.append("raw." + methodName + "($$);");
                 } else {
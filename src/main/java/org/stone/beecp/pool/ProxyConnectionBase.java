@@ -11,6 +11,7 @@ package org.stone.beecp.pool;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLWarning;
 import java.util.concurrent.Executor;
 
 import static org.stone.beecp.pool.ConnectionPoolStatics.*;
@@ -50,16 +51,16 @@ public abstract class ProxyConnectionBase extends ProxyBaseWrapper implements Co
         if (this.isClosed) throw new SQLException("No operations allowed after connection closed");
     }
 
-    synchronized final void registerStatement(ProxyStatementBase s) {
+    final void registerStatement(ProxyStatementBase s) {
         this.p.registerStatement(s);
     }
 
-    synchronized final void unregisterStatement(ProxyStatementBase s) {
+    final void unregisterStatement(ProxyStatementBase s) {
         this.p.unregisterStatement(s);
     }
 
     //***************************************************************************************************************//
-    //                                              override methods (11)                                            //
+    //                                              override methods (13)                                            //
     //***************************************************************************************************************//
     public boolean isClosed() {
         return this.isClosed;
@@ -67,15 +68,24 @@ public abstract class ProxyConnectionBase extends ProxyBaseWrapper implements Co
 
     //call by borrower,then return PooledConnection to pool
     public final void close() throws SQLException {
-        synchronized (this) {//safe close
-            if (this.isClosed) return;
-            this.isClosed = true;
-            this.raw = CLOSED_CON;
-            if (this.p.openStmSize > 0) this.p.clearStatement();
-        }
+        if (this.isClosed || !this.p.casClearProxyInUsing(this)) return;//safe close without monitor(not pin virtual threads)
+        this.isClosed = true;
+        this.raw = CLOSED_CON;
+        if (this.p.openStmSize > 0) this.p.clearStatement();
         this.p.recycleSelf();
     }
 
+    public SQLWarning getWarnings() throws SQLException {
+        SQLWarning warning = this.raw.getWarnings();
+        if (warning != null) this.p.warningsDirtyInd = true;//clear it on return
+        return warning;
+    }
+
+    public void clearWarnings() throws SQLException {
+        this.raw.clearWarnings();
+        this.p.warningsDirtyInd = false;
+    }
+
     public final void setAutoCommit(boolean autoCommit) throws SQLException {
         if (p.commitDirtyInd) throw new SQLException("Change forbidden when in transaction");
         this.raw.setAutoCommit(autoCommit);
@@ -133,12 +143,10 @@ public abstract class ProxyConnectionBase extends ProxyBaseWrapper implements Co
     //*<li>Insures that any thread that is currently accessing the connection
     //*will either progress to completion or throw an <code>SQLException</code>.
     public void abort(Executor executor) {
-        synchronized (this) {//safe close
-            if (this.isClosed) return;
-            this.isClosed = true;
-            this.raw = CLOSED_CON;
-            if (this.p.openStmSize > 0) this.p.clearStatement();
-        }
+        if (this.isClosed || !this.p.casClearProxyInUsing(this)) return;//safe close without monitor
+        this.isClosed = true;
+        this.raw = CLOSED_CON;
+        if (this.p.openStmSize > 0) this.p.clearStatement();
         this.p.removeSelf();//close raw connection and remove from pool
     }
     //for JDK1.7 end
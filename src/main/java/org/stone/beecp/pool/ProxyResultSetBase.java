@@ -23,6 +23,7 @@ import static org.stone.beecp.pool.ConnectionPoolStatics.CLOSED_RSLT;
  */
 abstract class ProxyResultSetBase extends ProxyBaseWrapper implements ResultSet {
     protected ResultSet raw;
+    ProxyResultSetMetaDataBase metaData;//created on first call of getMetaData,then reused in this proxy
     private ProxyStatementBase owner;//called by subclass to check close state
 
     ProxyResultSetBase(ResultSet raw, PooledConnection p) {
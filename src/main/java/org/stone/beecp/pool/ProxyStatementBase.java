@@ -9,7 +9,10 @@
  */
 package org.stone.beecp.pool;
 
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
+
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -24,9 +27,24 @@ import static org.stone.beecp.pool.ConnectionPoolStatics.*;
  * @version 1.0
  */
 abstract class ProxyStatementBase extends ProxyBaseWrapper implements Statement {
+    //index of attributes changed on a cacheable statement,which are restored before put back to cache
+    private static final int ATTR_MAX_ROWS = 0;
+    private static final int ATTR_QUERY_TIMEOUT = 1;
+    private static final int ATTR_FETCH_SIZE = 2;
+    private static final int ATTR_FETCH_DIRECTION = 3;
+    private static final int ATTR_MAX_FIELD_SIZE = 4;
+    private static final int ATTR_ESCAPE_PROCESSING = 5;//no getter,restored to default(true)
+    private static final int ATTR_CURSOR_NAME = 6;//not restorable,statement is evicted
+    private static final int ATTR_LARGE_MAX_ROWS = 7;//JDBC4.2(Java8+),original value saved in a long field
     private final ProxyConnectionBase owner;
     protected Statement raw;
     boolean registered = true;
+    int registryIndex;//slot index in open statement array of pooled connection
+    Object cacheKey;//key in statement cache of pooled connection,null when not cacheable
+    private boolean poolable = true;
+    private int changedAttrs;//bits of changed attributes,only maintained on cacheable statements
+    private int[] savedAttrs;//original values of changed attributes
+    private long savedLargeMaxRows;
     private ProxyResultSetBase curRe;
     private ArrayList<ProxyResultSetBase> results;
     private int resultOpenCode = Statement.CLOSE_CURRENT_RESULT;
@@ -49,6 +67,49 @@ abstract class ProxyStatementBase extends ProxyBaseWrapper implements Statement
         }
     }
 
+    //put raw statement back to statement cache on closing,return false if not cached
+    private boolean putRawToCache() {
+        if (this.cacheKey == null || !this.poolable) return false;
+        PreparedStatement ps = (PreparedStatement) this.raw;
+        try {
+            ps.clearParameters();
+            ps.clearBatch();
+            ps.clearWarnings();
+            if (this.changedAttrs != 0 && !this.restoreAttrs(ps)) return false;
+        } catch (SQLException e) {
+            return false;
+        }
+        return this.p.psCache.offer(this.cacheKey, ps);
+    }
+
+    //save original value of an attribute before its first change
+    private void saveAttr(int index, int value) {
+        if (this.savedAttrs == null) this.savedAttrs = new int[ATTR_ESCAPE_PROCESSING];
+        this.savedAttrs[index] = value;
+        this.changedAttrs |= 1 << index;
+    }
+
+    private boolean isAttrUnsaved(int index) {
+        return this.cacheKey != null && (this.changedAttrs & (1 << index)) == 0;
+    }
+
+    //restore changed attributes,so next borrower of cached statement not see them;return false if not restorable
+    @IgnoreJRERequirement//large max rows only changed on Java8+
+    private boolean restoreAttrs(PreparedStatement ps) throws SQLException {
+        int changed = this.changedAttrs;
+        if ((changed & (1 << ATTR_CURSOR_NAME)) != 0) return false;
+        int[] saved = this.savedAttrs;
+        if ((changed & (1 << ATTR_LARGE_MAX_ROWS)) != 0) ps.setLargeMaxRows(this.savedLargeMaxRows);
+        if ((changed & (1 << ATTR_MAX_ROWS)) != 0) ps.setMaxRows(saved[ATTR_MAX_ROWS]);
+        if ((changed & (1 << ATTR_QUERY_TIMEOUT)) != 0) ps.setQueryTimeout(saved[ATTR_QUERY_TIMEOUT]);
+        if ((changed & (1 << ATTR_FETCH_SIZE)) != 0) ps.setFetchSize(saved[ATTR_FETCH_SIZE]);
+        if ((changed & (1 << ATTR_FETCH_DIRECTION)) != 0) ps.setFetchDirection(saved[ATTR_FETCH_DIRECTION]);
+        if ((changed & (1 << ATTR_MAX_FIELD_SIZE)) != 0) ps.setMaxFieldSize(saved[ATTR_MAX_FIELD_SIZE]);
+        if ((changed & (1 << ATTR_ESCAPE_PROCESSING)) != 0) ps.setEscapeProcessing(true);
+        this.changedAttrs = 0;
+        return true;
+    }
+
     void setOpenResultSet(ProxyResultSetBase r) {//call by ProxyResultSetBase.constructor
         switch (this.resultOpenCode) {
             case Statement.CLOSE_CURRENT_RESULT: {
@@ -100,7 +161,7 @@ abstract class ProxyStatementBase extends ProxyBaseWrapper implements Statement
             this.results.clear();
         }
         try {
-            this.raw.close();
+            if (!this.putRawToCache()) this.raw.close();
         } finally {
             this.raw = CLOSED_CSTM;//why? because Mysql's PreparedStatement just only remark as closed with useServerCache mode
             if (this.registered) this.owner.unregisterStatement(this);
@@ -128,8 +189,56 @@ abstract class ProxyStatementBase extends ProxyBaseWrapper implements Statement
         return createProxyResultSet(re, this, this.p);
     }
 
-    public void setPoolable(boolean var1) {
-        //do nothing
+    public void setMaxRows(int max) throws SQLException {
+        if (this.isAttrUnsaved(ATTR_MAX_ROWS)) this.saveAttr(ATTR_MAX_ROWS, this.raw.getMaxRows());
+        this.raw.setMaxRows(max);
+    }
+
+    @IgnoreJRERequirement//JDBC4.2 method,not callable on Java7
+    public void setLargeMaxRows(long max) throws SQLException {
+        if (this.isAttrUnsaved(ATTR_LARGE_MAX_ROWS)) {
+            this.savedLargeMaxRows = this.raw.getLargeMaxRows();
+            this.changedAttrs |= 1 << ATTR_LARGE_MAX_ROWS;
+        }
+        this.raw.setLargeMaxRows(max);
+    }
+
+    public void setQueryTimeout(int seconds) throws SQLException {
+        if (this.isAttrUnsaved(ATTR_QUERY_TIMEOUT)) this.saveAttr(ATTR_QUERY_TIMEOUT, this.raw.getQueryTimeout());
+        this.raw.setQueryTimeout(seconds);
+    }
+
+    public void setFetchSize(int rows) throws SQLException {
+        if (this.isAttrUnsaved(ATTR_FETCH_SIZE)) this.saveAttr(ATTR_FETCH_SIZE, this.raw.getFetchSize());
+        this.raw.setFetchSize(rows);
+    }
+
+    public void setFetchDirection(int direction) throws SQLException {
+        if (this.isAttrUnsaved(ATTR_FETCH_DIRECTION)) this.saveAttr(ATTR_FETCH_DIRECTION, this.raw.getFetchDirection());
+        this.raw.setFetchDirection(direction);
+    }
+
+    public void setMaxFieldSize(int max) throws SQLException {
+        if (this.isAttrUnsaved(ATTR_MAX_FIELD_SIZE)) this.saveAttr(ATTR_MAX_FIELD_SIZE, this.raw.getMaxFieldSize());
+        this.raw.setMaxFieldSize(max);
+    }
+
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        this.raw.setEscapeProcessing(enable);
+        if (this.cacheKey != null) this.changedAttrs |= 1 << ATTR_ESCAPE_PROCESSING;
+    }
+
+    public void setCursorName(String name) throws SQLException {
+        this.raw.setCursorName(name);
+        if (this.cacheKey != null) this.changedAttrs |= 1 << ATTR_CURSOR_NAME;
+    }
+
+    public void setPoolable(boolean poolable) {
+        this.poolable = poolable;//false:raw statement not put back to statement cache on closing
+    }
+
+    public boolean isPoolable() {
+        return this.poolable && this.cacheKey != null;
     }
 
     public void closeOnCompletion() {
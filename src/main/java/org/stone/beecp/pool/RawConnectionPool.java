@@ -33,7 +33,7 @@ import static org.stone.tools.CommonUtil.isNotBlank;
  * @author Chris Liao
  * @version 1.0
  */
-public final class RawConnectionPool implements BeeConnectionPool {
+public final class RawConnectionPool implements BeeAsyncConnectionPool {
     private static final AtomicInteger poolNameIndex = new AtomicInteger(1);
     private static final FastConnectionPoolMonitorVo monitorVo = new FastConnectionPoolMonitorVo();
     private final AtomicInteger poolState = new AtomicInteger(POOL_NEW);
@@ -134,6 +134,28 @@ public final class RawConnectionPool implements BeeConnectionPool {
         }
     }
 
+    //borrow a connection and return a completed future
+    public BeeConnectionFuture<Connection> getConnectionAsync() {
+        ConnectionFuture<Connection> future = new ConnectionFuture<>(null, false);
+        try {
+            future.complete(this.getConnection());
+        } catch (Throwable e) {
+            future.fail(e);
+        }
+        return future;
+    }
+
+    //borrow a XA connection and return a completed future
+    public BeeConnectionFuture<XAConnection> getXAConnectionAsync() {
+        ConnectionFuture<XAConnection> future = new ConnectionFuture<>(null, true);
+        try {
+            future.complete(this.getXAConnection());
+        } catch (Throwable e) {
+            future.fail(e);
+        }
+        return future;
+    }
+
     /**
      * Connection return to pool after it end use,if exist waiter in pool,
      * then try to transfer the connection to one waiting borrower
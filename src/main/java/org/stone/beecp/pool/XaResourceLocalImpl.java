@@ -13,11 +13,13 @@ import javax.transaction.xa.XAException;
 import javax.transaction.xa.XAResource;
 import javax.transaction.xa.Xid;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static javax.transaction.xa.XAException.XAER_DUPID;
 
 /**
- * XAResource implementation for local connection
+ * XAResource implementation for local connection,a lock(not monitor) guards calls with driver I/O,so virtual threads
+ * are not pinned on them
  *
  * @author Chris Liao
  * @version 1.0
@@ -25,6 +27,7 @@ import static javax.transaction.xa.XAException.XAER_DUPID;
 public class XaResourceLocalImpl implements XAResource {
     private final ProxyConnectionBase proxyConn;
     private final boolean defaultAutoCommit;
+    private final ReentrantLock lock = new ReentrantLock();
     private Xid currentXid;//set from <method>start</method>
 
     XaResourceLocalImpl(ProxyConnectionBase proxyConn, boolean defaultAutoCommit) {
@@ -56,70 +59,95 @@ public class XaResourceLocalImpl implements XAResource {
     //***************************************************************************************************************//
     //                                      2:override methods(11)                                                   //                                                                                  //
     //***************************************************************************************************************//
-    public synchronized void start(Xid xid, int flags) throws XAException {
+    public void start(Xid xid, int flags) throws XAException {
         if (xid == null) throw new XAException("Xid can't be null");
-        if (flags == XAResource.TMJOIN) {
-            if (currentXid != null) throw new XAException("Resource has in a transaction");
-            try {
-                if (this.proxyConn.getAutoCommit())
-                    this.proxyConn.setAutoCommit(false);//support transaction
-            } catch (SQLException e) {
-                throw new XAException("Failed to set 'autoCommit' to false for transaction");
+        this.lock.lock();
+        try {
+            if (flags == XAResource.TMJOIN) {
+                if (currentXid != null) throw new XAException("Resource has in a transaction");
+                try {
+                    if (this.proxyConn.getAutoCommit())
+                        this.proxyConn.setAutoCommit(false);//support transaction
+                } catch (SQLException e) {
+                    throw new XAException("Failed to set 'autoCommit' to false for transaction");
+                }
+
+                currentXid = xid;
+            } else if (flags == XAResource.TMRESUME) {
+                if (currentXid == null) throw new XAException("Resource not join in a transaction");
+
+                if (!xid.equals(currentXid))
+                    throw new XAException("Invalid Xid,expected " + currentXid + ", but was " + xid);
+            } else if (flags != XAResource.TMNOFLAGS) {
+                throw new XAException(XAER_DUPID);
             }
-
-            currentXid = xid;
-        } else if (flags == XAResource.TMRESUME) {
-            if (currentXid == null) throw new XAException("Resource not join in a transaction");
-
-            if (!xid.equals(currentXid))
-                throw new XAException("Invalid Xid,expected " + currentXid + ", but was " + xid);
-        } else if (flags != XAResource.TMNOFLAGS) {
-            throw new XAException(XAER_DUPID);
+        } finally {
+            this.lock.unlock();
         }
     }
 
-    public synchronized void end(Xid xid, int flags) throws XAException {
-        this.checkXid(xid);
+    public void end(Xid xid, int flags) throws XAException {
+        this.lock.lock();
+        try {
+            this.checkXid(xid);
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    public synchronized int prepare(Xid xid) throws XAException {
-        this.checkXid(xid);
+    public int prepare(Xid xid) throws XAException {
+        this.lock.lock();
         try {
-            if (this.proxyConn.isReadOnly()) {
-                this.resetAutoCommitToDefault();
-                return XAResource.XA_RDONLY;
+            this.checkXid(xid);
+            try {
+                if (this.proxyConn.isReadOnly()) {
+                    this.resetAutoCommitToDefault();
+                    return XAResource.XA_RDONLY;
+                }
+            } catch (SQLException e) {
+                //do nothing
             }
-        } catch (SQLException e) {
-            //do nothing
+            return XAResource.XA_OK;
+        } finally {
+            this.lock.unlock();
         }
-        return XAResource.XA_OK;
     }
 
-    public synchronized void commit(Xid xid, boolean onePhase) throws XAException {
-        this.checkXid(xid);
+    public void commit(Xid xid, boolean onePhase) throws XAException {
+        this.lock.lock();
         try {
-            this.proxyConn.commit();
-        } catch (SQLException e) {
-            throw new XAException(e.getMessage());
+            this.checkXid(xid);
+            try {
+                this.proxyConn.commit();
+            } catch (SQLException e) {
+                throw new XAException(e.getMessage());
+            } finally {
+                this.currentXid = null;
+                this.resetAutoCommitToDefault();
+            }
         } finally {
-            this.currentXid = null;
-            this.resetAutoCommitToDefault();
+            this.lock.unlock();
         }
     }
 
-    public synchronized void rollback(Xid xid) throws XAException {
-        this.checkXid(xid);
+    public void rollback(Xid xid) throws XAException {
+        this.lock.lock();
         try {
-            this.proxyConn.rollback();
-        } catch (SQLException e) {
-            throw (XAException) new XAException().initCause(e);
+            this.checkXid(xid);
+            try {
+                this.proxyConn.rollback();
+            } catch (SQLException e) {
+                throw (XAException) new XAException().initCause(e);
+            } finally {
+                this.currentXid = null;
+                this.resetAutoCommitToDefault();
+            }
         } finally {
-            this.currentXid = null;
-            this.resetAutoCommitToDefault();
+            this.lock.unlock();
         }
     }
 
-    public synchronized void forget(Xid xid) {
+    public void forget(Xid xid) {
         //do nothing
     }
 
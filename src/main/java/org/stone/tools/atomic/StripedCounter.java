@@ -0,0 +1,61 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.tools.atomic;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.stone.tools.CommonUtil.NCPU;
+
+/**
+ * A counter striped on cells mapped with thread hash(similar to LongAdder of Java8),updating threads spread on cells
+ * to reduce cas contention,reading sums all cells.Sum is not an atomic snapshot under concurrent updates.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public final class StripedCounter {
+    private static final int CELL_PAD = 8;//8 longs(64 bytes) between two cells to avoid false sharing
+    private final int mask;
+    private final AtomicLongArray cells;
+
+    public StripedCounter() {
+        int size = 1;
+        int cellSize = Math.min(Math.max(NCPU, 1), 64);
+        while (size < cellSize) size <<= 1;
+
+        this.mask = size - 1;
+        this.cells = new AtomicLongArray(size * CELL_PAD);
+    }
+
+    private static int hash(Thread thread) {
+        long id = thread.getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public void increment() {
+        this.add(1L);
+    }
+
+    public void decrement() {
+        this.add(-1L);
+    }
+
+    public void add(long x) {
+        this.cells.getAndAdd((hash(Thread.currentThread()) & mask) * CELL_PAD, x);
+    }
+
+    public long sum() {
+        long sum = 0L;
+        for (int i = 0, l = this.cells.length(); i < l; i += CELL_PAD)
+            sum += this.cells.get(i);
+        return sum;
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.tools.extension;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permits interface provide interruption method,which is a common view of permit controllers
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public interface InterruptionPermits {
+
+    boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException;
+
+    void release();
+
+    int availablePermits();
+
+    int getQueueLength();
+
+    List<Thread> interruptQueuedWaitThreads();
+}
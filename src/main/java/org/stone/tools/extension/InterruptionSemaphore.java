@@ -20,7 +20,7 @@ import java.util.concurrent.Semaphore;
  * @author Chris Liao
  * @version 1.0
  */
-public final class InterruptionSemaphore extends Semaphore {
+public final class InterruptionSemaphore extends Semaphore implements InterruptionPermits {
 
     public InterruptionSemaphore(int permits) {
         super(permits);
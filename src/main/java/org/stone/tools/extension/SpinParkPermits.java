@@ -0,0 +1,144 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.tools.extension;
+
+import org.stone.tools.atomic.IntegerFieldUpdaterImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.stone.tools.CommonUtil.maxTimedSpins;
+import static org.stone.tools.CommonUtil.spinForTimeoutThreshold;
+
+/**
+ * A non-fair permits controller based on a CAS counter,acquirers spin a while before parking in a wait queue.
+ * Size of permits can be changed at runtime,available count may be negative after a decrease,acquirers wait until
+ * it becomes positive again.Waiters leaving queue(acquired,timeout or interrupted) are marked as removed in O(1),
+ * marked nodes are unlinked when they reach queue head.
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public final class SpinParkPermits implements InterruptionPermits {
+    private static final AtomicIntegerFieldUpdater<SpinParkPermits> AvailableUpd = IntegerFieldUpdaterImpl.newUpdater(SpinParkPermits.class, "available");
+    private static final AtomicIntegerFieldUpdater<SpinParkPermits> WaitingUpd = IntegerFieldUpdaterImpl.newUpdater(SpinParkPermits.class, "waitingSize");
+    private final ConcurrentLinkedQueue<WaitNode> waiters = new ConcurrentLinkedQueue<>();
+    private volatile int permits;
+    private volatile int available;
+    private volatile int waitingSize;//count of waiters not removed from queue
+
+    public SpinParkPermits(int permits) {
+        this.permits = permits;
+        this.available = permits;
+    }
+
+    private boolean tryAcquire() {
+        int a;
+        while ((a = this.available) > 0) {
+            if (AvailableUpd.compareAndSet(this, a, a - 1)) return true;
+        }
+        return false;
+    }
+
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        if (Thread.interrupted()) throw new InterruptedException();
+        if (this.tryAcquire()) return true;
+
+        //1: spin a while before parking
+        for (int spins = maxTimedSpins; spins > 0; spins--) {
+            if (this.tryAcquire()) return true;
+        }
+
+        //2: park in wait queue until a permit released,timeout,or interrupted
+        final WaitNode node = new WaitNode(Thread.currentThread());
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        WaitingUpd.getAndIncrement(this);
+        this.waiters.offer(node);
+        try {
+            do {
+                if (this.tryAcquire()) return true;
+                long t = deadline - System.nanoTime();
+                if (t <= 0L) return false;
+                if (t > spinForTimeoutThreshold) LockSupport.parkNanos(this, t);
+                if (Thread.interrupted()) throw new InterruptedException();
+            } while (true);
+        } finally {
+            node.removed = true;//O(1) removal,node is unlinked when it reaches head
+            WaitingUpd.getAndDecrement(this);
+            if (this.available > 0) this.wakeupWaiter();//pass wakeup to next waiter
+        }
+    }
+
+    public void release() {
+        AvailableUpd.getAndIncrement(this);
+        this.wakeupWaiter();
+    }
+
+    //unpark first live waiter,removed nodes ahead of it are unlinked from head
+    private void wakeupWaiter() {
+        for (WaitNode node; (node = this.waiters.peek()) != null; ) {
+            if (!node.removed) {
+                LockSupport.unpark(node.thread);
+                return;
+            }
+            this.waiters.remove(node);//it is at head,so not a full scan
+        }
+    }
+
+    public int getPermits() {
+        return this.permits;
+    }
+
+    /**
+     * change size of permits,acquired permits are not revoked
+     *
+     * @param newPermits is new size of permits
+     */
+    public synchronized void setPermits(int newPermits) {
+        if (newPermits <= 0) throw new IllegalArgumentException("Permits must be greater than zero");
+        int delta = newPermits - this.permits;
+        if (delta == 0) return;
+        this.permits = newPermits;
+        AvailableUpd.getAndAdd(this, delta);
+        if (delta > 0) this.wakeupWaiter();
+    }
+
+    public int availablePermits() {
+        return this.available;
+    }
+
+    public int getQueueLength() {
+        return this.waitingSize;
+    }
+
+    public List<Thread> interruptQueuedWaitThreads() {
+        List<Thread> waitThreads = new ArrayList<>(this.waitingSize);
+        for (WaitNode node : this.waiters) {
+            if (!node.removed) {
+                node.thread.interrupt();
+                waitThreads.add(node.thread);
+            }
+        }
+        return waitThreads;
+    }
+
+    private static final class WaitNode {
+        private final Thread thread;
+        private volatile boolean removed;
+
+        WaitNode(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
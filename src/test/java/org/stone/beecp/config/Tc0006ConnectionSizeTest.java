@@ -64,4 +64,17 @@ public class Tc0006ConnectionSizeTest extends TestCase {
             Assert.assertTrue(message != null && message.contains("initialSize must not be greater than maxActive"));
         }
     }
+
+    public void testOnCasSemaphoreInFairMode() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setFairMode(true);
+        config.setEnableCasSemaphore(true);
+
+        try {
+            config.check();
+            Assert.fail("Cas semaphore check failed in fair mode");
+        } catch (BeeDataSourceConfigException e) {
+            Assert.assertEquals("Cas semaphore is not fair,it can't be enabled in fair mode", e.getMessage());
+        }
+    }
 }
@@ -40,6 +40,93 @@ public class Tc0007ConfigSetAndGetTest extends TestCase {
         config.setBorrowSemaphoreSize(5);
         Assert.assertEquals(config.getBorrowSemaphoreSize(), 5);
 
+        //enableCasSemaphore
+        Assert.assertFalse(config.isEnableCasSemaphore());
+        config.setEnableCasSemaphore(true);
+        Assert.assertTrue(config.isEnableCasSemaphore());
+
+        //enableAdaptiveSemaphore
+        Assert.assertFalse(config.isEnableAdaptiveSemaphore());
+        config.setEnableAdaptiveSemaphore(true);
+        Assert.assertTrue(config.isEnableAdaptiveSemaphore());
+
+        Assert.assertEquals(1, config.getParallelCreationSize());
+        config.setParallelCreationSize(0);
+        Assert.assertEquals(1, config.getParallelCreationSize());
+        config.setParallelCreationSize(4);
+        Assert.assertEquals(4, config.getParallelCreationSize());
+
+        Assert.assertFalse(config.isEnableExactMonitorScan());
+        config.setEnableExactMonitorScan(true);
+        Assert.assertTrue(config.isEnableExactMonitorScan());
+
+        Assert.assertFalse(config.isEnableBorrowLatencyStatistics());
+        config.setEnableBorrowLatencyStatistics(true);
+        Assert.assertTrue(config.isEnableBorrowLatencyStatistics());
+
+        Assert.assertFalse(config.isEnableHoldTimeStatistics());
+        config.setEnableHoldTimeStatistics(true);
+        Assert.assertTrue(config.isEnableHoldTimeStatistics());
+        Assert.assertEquals(0, config.getBorrowStackSampleInterval());
+        config.setBorrowStackSampleInterval(-1);
+        Assert.assertEquals(0, config.getBorrowStackSampleInterval());
+        config.setBorrowStackSampleInterval(100);
+        Assert.assertEquals(100, config.getBorrowStackSampleInterval());
+
+        Assert.assertEquals(0L, config.getLeakDetectionThreshold());
+        config.setLeakDetectionThreshold(-1L);
+        Assert.assertEquals(0L, config.getLeakDetectionThreshold());
+        config.setLeakDetectionThreshold(60000L);
+        Assert.assertEquals(60000L, config.getLeakDetectionThreshold());
+
+        Assert.assertEquals(0, config.getPreparedStatementCacheSize());
+        config.setPreparedStatementCacheSize(-1);
+        Assert.assertEquals(0, config.getPreparedStatementCacheSize());
+        config.setPreparedStatementCacheSize(50);
+        Assert.assertEquals(50, config.getPreparedStatementCacheSize());
+
+        Assert.assertFalse(config.isEnableLazyReset());
+        config.setEnableLazyReset(true);
+        Assert.assertTrue(config.isEnableLazyReset());
+
+        Assert.assertTrue(config.isForceClearWarnings());
+        config.setForceClearWarnings(false);
+        Assert.assertFalse(config.isForceClearWarnings());
+
+        config.setAliveTestInterval(-1L);
+        Assert.assertEquals(0L, config.getAliveTestInterval());
+        config.setAliveTestInterval(200L);
+        Assert.assertEquals(200L, config.getAliveTestInterval());
+
+        config.setAliveTestConcurrency(-1);
+        Assert.assertEquals(0, config.getAliveTestConcurrency());
+        config.setAliveTestConcurrency(4);
+        Assert.assertEquals(4, config.getAliveTestConcurrency());
+
+        Assert.assertFalse(config.isEnableTimingWheel());
+        config.setEnableTimingWheel(true);
+        Assert.assertTrue(config.isEnableTimingWheel());
+        config.setTimingWheelTickTime(0L);
+        Assert.assertEquals(1000L, config.getTimingWheelTickTime());
+        config.setTimingWheelTickTime(100L);
+        Assert.assertEquals(100L, config.getTimingWheelTickTime());
+
+        Assert.assertFalse(config.isEnableVirtualThreadMode());
+        config.setEnableVirtualThreadMode(true);
+        Assert.assertTrue(config.isEnableVirtualThreadMode());
+
+        Assert.assertEquals(1, config.getThreadLocalCacheSize());
+        config.setThreadLocalCacheSize(0);
+        Assert.assertEquals(1, config.getThreadLocalCacheSize());
+        config.setThreadLocalCacheSize(2);
+        Assert.assertEquals(2, config.getThreadLocalCacheSize());
+
+        Assert.assertEquals(1, config.getServantCreationFanOut());
+        config.setServantCreationFanOut(0);
+        Assert.assertEquals(1, config.getServantCreationFanOut());
+        config.setServantCreationFanOut(8);
+        Assert.assertEquals(8, config.getServantCreationFanOut());
+
         //maxWait
         config.setMaxWait(0L);
         Assert.assertNotEquals(config.getMaxWait(), 0);
@@ -172,6 +259,11 @@ public class Tc0007ConfigSetAndGetTest extends TestCase {
         config.setEnableThreadLocal(true);
         Assert.assertTrue(config.isEnableThreadLocal());
 
+        //enableStripedIdleIndex
+        Assert.assertFalse(config.isEnableStripedIdleIndex());
+        config.setEnableStripedIdleIndex(true);
+        Assert.assertTrue(config.isEnableStripedIdleIndex());
+
         //poolImplementClassName
         config.setPoolImplementClassName(null);
         Assert.assertNotNull(config.getPoolImplementClassName());
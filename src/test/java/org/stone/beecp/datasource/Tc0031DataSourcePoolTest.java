@@ -14,6 +14,7 @@ import org.junit.Assert;
 import org.stone.base.StoneLogAppender;
 import org.stone.base.TestUtil;
 import org.stone.beecp.*;
+import org.stone.beecp.objects.MockBlockPoolImplementation2;
 import org.stone.beecp.objects.MockCreateNullConnectionFactory;
 import org.stone.beecp.pool.ConnectionPoolStatics;
 import org.stone.beecp.pool.exception.PoolCreateFailedException;
@@ -25,6 +26,7 @@ import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.util.concurrent.TimeUnit;
 
 import static org.stone.beecp.config.DsConfigFactory.*;
@@ -229,6 +231,19 @@ public class Tc0031DataSourcePoolTest extends TestCase {
         }
     }
 
+    public void testAsyncBorrowNotSupported() throws Exception {
+        BeeDataSource ds = new BeeDataSource(JDBC_DRIVER, JDBC_URL, JDBC_USER, JDBC_PASSWORD);
+        ds.setPoolImplementClassName(MockBlockPoolImplementation2.class.getName());//not implement async pool interface
+        try {
+            ds.getConnectionAsync();
+            Assert.fail("Async borrowing check failed");
+        } catch (SQLFeatureNotSupportedException e) {
+            Assert.assertTrue(e.getMessage().contains(MockBlockPoolImplementation2.class.getName()));
+        } finally {
+            ds.close();
+        }
+    }
+
     public void testPoolInitializeFailedException() {
         BeeDataSource ds = null;
         try {
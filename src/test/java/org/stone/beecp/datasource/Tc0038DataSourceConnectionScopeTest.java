@@ -0,0 +1,140 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0.
+ */
+package org.stone.beecp.datasource;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeConnectionCallback;
+import org.stone.beecp.BeeDataSource;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0038DataSourceConnectionScopeTest extends TestCase {
+
+    public void testSharedConnectionInScope() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setMaxWait(100L);
+        final BeeDataSource ds = new BeeDataSource(config);
+
+        final Connection[] cons = new Connection[2];
+        String result = ds.withConnection(new BeeConnectionCallback<String>() {
+            public String call(Connection con) throws SQLException {
+                Connection daoCon = ds.getConnection();//no wait on pool(max size is 1)
+                Assert.assertEquals(1, ds.getPoolMonitorVo().getUsingSize());
+                Assert.assertEquals(con.toString(), daoCon.toString());
+                daoCon.setAutoCommit(false);
+                Assert.assertFalse(con.getAutoCommit());
+                daoCon.close();
+                Assert.assertTrue(daoCon.isClosed());
+                Assert.assertFalse(con.isClosed());
+                try {
+                    daoCon.commit();
+                    fail("operation on closed shared connection");
+                } catch (SQLException e) {
+                    Assert.assertEquals("No operations allowed after connection closed", e.getMessage());
+                }
+                con.setAutoCommit(true);
+
+                return ds.withConnection(new BeeConnectionCallback<String>() {//nested scope
+                    public String call(Connection nestedCon) throws SQLException {
+                        cons[0] = nestedCon;
+                        Assert.assertEquals(1, ds.getPoolMonitorVo().getUsingSize());
+                        return "ok";
+                    }
+                });
+            }
+        });
+
+        Assert.assertEquals("ok", result);
+        Assert.assertTrue(cons[0].isClosed());//scoped connection returned to pool on exit
+        Assert.assertEquals(0, ds.getPoolMonitorVo().getUsingSize());
+        cons[1] = ds.getConnection();//out of scope
+        Assert.assertEquals(1, ds.getPoolMonitorVo().getUsingSize());
+        cons[1].close();
+        ds.close();
+    }
+
+    public void testCloseInCallback() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(2);
+        final BeeDataSource ds = new BeeDataSource(config);
+
+        ds.withConnection(new BeeConnectionCallback<Object>() {
+            public Object call(Connection con) throws SQLException {
+                con.close();//only close view
+                Assert.assertTrue(con.isClosed());
+                Assert.assertEquals(1, ds.getPoolMonitorVo().getUsingSize());
+
+                Connection daoCon = ds.getConnection();//still share scoped connection
+                Assert.assertFalse(daoCon.isClosed());
+                Assert.assertEquals(1, ds.getPoolMonitorVo().getUsingSize());
+                daoCon.close();
+                return null;
+            }
+        });
+        Assert.assertEquals(0, ds.getPoolMonitorVo().getUsingSize());
+        ds.close();
+    }
+
+    public void testStatementConnectionInScope() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(2);
+        final BeeDataSource ds = new BeeDataSource(config);
+
+        ds.withConnection(new BeeConnectionCallback<Object>() {
+            public Object call(Connection con) throws SQLException {
+                Statement st = con.createStatement();
+                Assert.assertSame(con, st.getConnection());
+                ResultSet rs = st.executeQuery("select 1");
+                Assert.assertSame(st, rs.getStatement());
+                Assert.assertSame(con, rs.getStatement().getConnection());
+                rs.close();
+                st.close();
+
+                Assert.assertSame(con, con.getMetaData().getConnection());
+                PreparedStatement ps = con.prepareStatement("select 1");
+                ps.getConnection().close();//callee closes connection got from statement
+                Assert.assertTrue(con.isClosed());
+                Assert.assertEquals(1, ds.getPoolMonitorVo().getUsingSize());
+
+                Connection daoCon = ds.getConnection();
+                Assert.assertFalse(daoCon.isClosed());
+                daoCon.close();
+                return null;
+            }
+        });
+        Assert.assertEquals(0, ds.getPoolMonitorVo().getUsingSize());
+        ds.close();
+    }
+
+    public void testScopeExitOnException() throws Exception {
+        final BeeDataSource ds = new BeeDataSource(createDefault());
+        try {
+            ds.withConnection(new BeeConnectionCallback<Object>() {
+                public Object call(Connection con) throws SQLException {
+                    throw new SQLException("failed in scope");
+                }
+            });
+            fail("exception not thrown from scope");
+        } catch (SQLException e) {
+            Assert.assertEquals("failed in scope", e.getMessage());
+        }
+        Assert.assertEquals(0, ds.getPoolMonitorVo().getUsingSize());
+        ds.close();
+    }
+}
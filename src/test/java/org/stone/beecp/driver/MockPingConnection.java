@@ -0,0 +1,24 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.driver;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Mock connection interface with a native ping method(same signature as MySQL connection)
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public interface MockPingConnection extends Connection {
+
+    void pingInternal(boolean checkForClosedConnection, int timeoutMillis) throws SQLException;
+}
@@ -0,0 +1,69 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.driver;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mock connection simulating network round trips to server,each call to server parks a time and is counted
+ *
+ * @author Chris Liao
+ * @version 1.0
+ */
+public class MockRoundTripConnection extends MockConnection implements MockPingConnection {
+    private final long roundTripNanos;
+    private final boolean supportIsValid;
+    private volatile int roundTripCount;
+
+    public MockRoundTripConnection(long roundTripNanos, boolean supportIsValid) {
+        this.roundTripNanos = roundTripNanos;
+        this.supportIsValid = supportIsValid;
+    }
+
+    public int getRoundTripCount() {
+        return roundTripCount;
+    }
+
+    void roundTrip() {
+        roundTripCount++;
+        if (roundTripNanos > 0L) LockSupport.parkNanos(roundTripNanos);
+    }
+
+    public boolean isValid(int timeout) throws SQLException {
+        if (!supportIsValid) return false;
+        roundTrip();
+        return super.isValid(timeout);
+    }
+
+    public void pingInternal(boolean checkForClosedConnection, int timeoutMillis) throws SQLException {
+        if (checkForClosedConnection && isClosed()) throw new SQLException("Connection closed");
+        roundTrip();
+    }
+
+    public Statement createStatement() {
+        return new MockStatement(this) {
+            public boolean execute(String sql) {
+                roundTrip();
+                return super.execute(sql);
+            }
+        };
+    }
+
+    public void setAutoCommit(boolean autoCommit) {
+        roundTrip();
+        super.setAutoCommit(autoCommit);
+    }
+
+    public void rollback() {
+        roundTrip();
+    }
+}
@@ -21,7 +21,9 @@ public class MockStatement extends MockBase implements Statement {
     private int queryTimeout;
     private int maxFieldSize;
     private int maxRows;
+    private long largeMaxRows;
     private int fetchSize;
+    private SQLWarning warning;
 
     MockStatement(MockConnection connection) {
         this.connection = connection;
@@ -61,6 +63,14 @@ public class MockStatement extends MockBase implements Statement {
         maxRows = max;
     }
 
+    public long getLargeMaxRows() {
+        return largeMaxRows;
+    }
+
+    public void setLargeMaxRows(long max) {
+        largeMaxRows = max;
+    }
+
     public void setEscapeProcessing(boolean enable) {
         //do nothing
     }
@@ -78,11 +88,15 @@ public class MockStatement extends MockBase implements Statement {
     }
 
     public SQLWarning getWarnings() {
-        return null;
+        return warning;
+    }
+
+    public void setWarning(SQLWarning warning) {
+        this.warning = warning;
     }
 
     public void clearWarnings() {
-        //do nothing
+        warning = null;
     }
 
     public void setCursorName(String name) {
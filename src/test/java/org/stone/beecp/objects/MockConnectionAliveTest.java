@@ -0,0 +1,23 @@
+package org.stone.beecp.objects;
+
+import org.stone.beecp.BeeConnectionAliveTest;
+
+import java.sql.Connection;
+
+public class MockConnectionAliveTest implements BeeConnectionAliveTest {
+    private volatile boolean alive = true;
+    private volatile int testCount;
+
+    public void setAlive(boolean alive) {
+        this.alive = alive;
+    }
+
+    public int getTestCount() {
+        return testCount;
+    }
+
+    public boolean isAlive(Connection con, int timeout) {
+        testCount++;
+        return alive;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.objects;
+
+import org.stone.beecp.BeeConnectionFactory;
+import org.stone.beecp.driver.MockConnection;
+
+import java.sql.Connection;
+import java.sql.SQLWarning;
+
+/**
+ * Mock factory creating connections with warnings and counting calls of warnings clearing
+ *
+ * @author Chris Liao
+ */
+public class MockWarningsConnectionFactory implements BeeConnectionFactory {
+    private final boolean withWarning;
+
+    public MockWarningsConnectionFactory(boolean withWarning) {
+        this.withWarning = withWarning;
+    }
+
+    public Connection create() {
+        return new WarningsConnection(withWarning);
+    }
+
+    public static final class WarningsConnection extends MockConnection {
+        private final boolean withWarning;
+        private int clearWarningsCount;
+
+        WarningsConnection(boolean withWarning) {
+            this.withWarning = withWarning;
+        }
+
+        public int getClearWarningsCount() {
+            return clearWarningsCount;
+        }
+
+        public SQLWarning getWarnings() {
+            return withWarning ? new SQLWarning("mock warning") : null;
+        }
+
+        public void clearWarnings() {
+            clearWarningsCount++;
+        }
+    }
+}
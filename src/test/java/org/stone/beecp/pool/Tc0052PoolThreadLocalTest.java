@@ -14,8 +14,8 @@ import org.junit.Assert;
 import org.stone.beecp.BeeDataSourceConfig;
 
 import java.lang.ref.WeakReference;
-import java.lang.reflect.Array;
 import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static org.stone.base.TestUtil.getFieldValue;
 import static org.stone.base.TestUtil.setFieldValue;
@@ -81,11 +81,13 @@ public class Tc0052PoolThreadLocalTest extends TestCase {
         Connection con1Raw = (Connection) getFieldValue(con1, ProxyConnectionBase.class, "raw");
         con1.close();
 
-        Object pooledArray = getFieldValue(pool, "pooledArray");
-        Object first = Array.get(pooledArray, 0);
-        Object second = Array.get(pooledArray, 1);
-        Array.set(pooledArray, 0, second);
-        Array.set(pooledArray, 1, first);
+        AtomicReferenceArray<PooledConnection> pooledArray = (AtomicReferenceArray<PooledConnection>) getFieldValue(pool, "pooledArray");
+        PooledConnection first = pooledArray.get(0);
+        PooledConnection second = pooledArray.get(1);
+        pooledArray.set(0, second);
+        pooledArray.set(1, first);
+        first.slotIndex = 1;
+        second.slotIndex = 0;
 
         Connection con2 = pool.getConnection();
         Connection con2Raw = (Connection) getFieldValue(con2, ProxyConnectionBase.class, "raw");
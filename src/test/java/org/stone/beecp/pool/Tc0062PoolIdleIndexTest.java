@@ -0,0 +1,102 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0062PoolIdleIndexTest extends TestCase {
+
+    public void testIndexDisabled() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Assert.assertNull(getFieldValue(pool, "idleIndex"));
+        pool.close();
+    }
+
+    public void testGetFromIndex() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(2);
+        config.setMaxActive(2);
+        config.setEnableThreadLocal(false);
+        config.setEnableStripedIdleIndex(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        Assert.assertNotNull(getFieldValue(pool, "idleIndex"));
+        Assert.assertEquals(2, getIndexedSize(pool));
+
+        Connection con1 = pool.getConnection();
+        Connection con2 = pool.getConnection();
+        Assert.assertEquals(0, getIndexedSize(pool));
+        Assert.assertEquals(0, pool.getIdleSize());
+        con1.close();
+        con2.close();
+        Assert.assertEquals(2, getIndexedSize(pool));
+        Assert.assertEquals(2, pool.getIdleSize());
+
+        Connection con3 = pool.getConnection();
+        Assert.assertEquals(1, getIndexedSize(pool));
+        con3.close();
+        con3 = pool.getConnection();//only indexed once
+        con3.close();
+        Assert.assertEquals(2, getIndexedSize(pool));
+        pool.close();
+    }
+
+    public void testConcurrentBorrow() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(4);
+        config.setEnableThreadLocal(false);
+        config.setEnableStripedIdleIndex(true);
+        final FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        final AtomicInteger failedCount = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        try {
+                            pool.getConnection().close();
+                        } catch (Exception e) {
+                            failedCount.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        Assert.assertEquals(0, failedCount.get());
+        Assert.assertEquals(pool.getTotalSize(), pool.getIdleSize());
+        Assert.assertTrue(getIndexedSize(pool) <= pool.getTotalSize());
+        pool.close();
+    }
+
+    private int getIndexedSize(FastConnectionPool pool) throws Exception {
+        Object index = getFieldValue(pool, "idleIndex");
+        ConcurrentLinkedQueue[] stripes = (ConcurrentLinkedQueue[]) getFieldValue(index, "stripes");
+        int size = 0;
+        for (ConcurrentLinkedQueue stripe : stripes)
+            size += stripe.size();
+        return size;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.base.TestUtil;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.objects.BorrowThread;
+import org.stone.beecp.objects.InterruptionAction;
+import org.stone.beecp.objects.MockNetBlockConnectionFactory;
+import org.stone.beecp.pool.exception.ConnectionGetInterruptedException;
+import org.stone.beecp.pool.exception.ConnectionGetTimeoutException;
+import org.stone.tools.extension.InterruptionSemaphore;
+import org.stone.tools.extension.SpinParkPermits;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.base.TestUtil.setFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0063PoolCasSemaphoreTest extends TestCase {
+
+    public void testSemaphoreType() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Assert.assertTrue(getFieldValue(pool, "semaphore") instanceof InterruptionSemaphore);
+        pool.close();
+
+        BeeDataSourceConfig config = createDefault();
+        config.setEnableCasSemaphore(true);
+        pool = new FastConnectionPool();
+        pool.init(config);
+        Assert.assertTrue(getFieldValue(pool, "semaphore") instanceof SpinParkPermits);
+        Assert.assertNull(getFieldValue(pool, "adaptiveSemaphore"));
+
+        Connection con = pool.getConnection();
+        Assert.assertEquals(0, pool.getSemaphoreAcquiredSize());
+        con.close();
+        pool.close();
+    }
+
+    public void testWaitTimeout() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(2);
+        config.setBorrowSemaphoreSize(1);
+        config.setEnableCasSemaphore(true);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(1));
+        config.setConnectionFactory(new MockNetBlockConnectionFactory());
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        BorrowThread first = new BorrowThread(pool);//mock stuck in driver.getConnection()
+        first.start();
+        TestUtil.joinUtilWaiting(first);
+
+        Assert.assertEquals(1, pool.getSemaphoreAcquiredSize());
+        try {
+            pool.getConnection();
+            Assert.fail("Semaphore timeout test failed");
+        } catch (ConnectionGetTimeoutException e) {
+            Assert.assertTrue(e.getMessage().contains("Wait timeout on pool semaphore acquisition"));
+        } finally {
+            first.interrupt();
+        }
+        pool.close();
+    }
+
+    public void testInterruptWaiters() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(2);
+        config.setBorrowSemaphoreSize(1);
+        config.setEnableCasSemaphore(true);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        config.setConnectionFactory(new MockNetBlockConnectionFactory());
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        BorrowThread first = new BorrowThread(pool);
+        first.start();
+        TestUtil.joinUtilWaiting(first);
+        new InterruptionAction(Thread.currentThread()).start();
+
+        try {
+            pool.getConnection();
+            Assert.fail("Semaphore interruption test failed");
+        } catch (ConnectionGetInterruptedException e) {
+            Assert.assertTrue(e.getMessage().contains("An interruption occurred on pool semaphore acquisition"));
+        } finally {
+            first.interrupt();
+        }
+        pool.close();
+    }
+
+    public void testAdaptivePermits() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(4);
+        config.setBorrowSemaphoreSize(1);
+        config.setEnableCasSemaphore(true);
+        config.setEnableAdaptiveSemaphore(true);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        config.setConnectionFactory(new MockNetBlockConnectionFactory());
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        SpinParkPermits permits = (SpinParkPermits) getFieldValue(pool, "adaptiveSemaphore");
+        Assert.assertNotNull(permits);
+
+        BorrowThread first = new BorrowThread(pool);//hold the only permit
+        first.start();
+        TestUtil.joinUtilWaiting(first);
+        BorrowThread second = new BorrowThread(pool);//wait on semaphore
+        second.start();
+        TestUtil.joinUtilWaiting(second);
+        Assert.assertEquals(1, pool.getSemaphoreWaitingSize());
+
+        //grow when borrowers wait on semaphore and wait queue is empty
+        setFieldValue(pool, "permitsAdjustTime", System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+        TestUtil.invokeMethod2(pool, "adjustSemaphorePermits");
+        Assert.assertEquals(2, permits.getPermits());
+
+        //halve when creation is slow,but not less than configured size
+        setFieldValue(pool, "avgCreationTimeNs", TimeUnit.SECONDS.toNanos(10));
+        setFieldValue(pool, "permitsAdjustTime", System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+        TestUtil.invokeMethod2(pool, "adjustSemaphorePermits");
+        Assert.assertEquals(1, permits.getPermits());
+
+        first.interrupt();
+        second.interrupt();
+        pool.close();
+    }
+
+    public void testAdaptivePermitsHalvedOnDeepQueue() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setBorrowSemaphoreSize(1);
+        config.setEnableCasSemaphore(true);
+        config.setEnableAdaptiveSemaphore(true);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        SpinParkPermits permits = (SpinParkPermits) getFieldValue(pool, "adaptiveSemaphore");
+        permits.setPermits(2);
+
+        Connection con = pool.getConnection();//pool is full,permit holders wait for transfer
+        BorrowThread[] threads = new BorrowThread[5];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new BorrowThread(pool);
+            threads[i].start();
+            TestUtil.joinUtilWaiting(threads[i]);
+        }
+        Assert.assertEquals(2, pool.getTransferWaitingSize());
+        Assert.assertEquals(3, pool.getSemaphoreWaitingSize());
+
+        setFieldValue(pool, "permitsAdjustTime", System.nanoTime() - TimeUnit.SECONDS.toNanos(1));
+        TestUtil.invokeMethod2(pool, "adjustSemaphorePermits");
+        Assert.assertEquals(1, permits.getPermits());
+
+        for (BorrowThread thread : threads)
+            thread.interrupt();
+        for (BorrowThread thread : threads)
+            thread.join();
+        con.close();
+        pool.close();
+    }
+
+    public void testPermitsResize() throws Exception {
+        SpinParkPermits permits = new SpinParkPermits(2);
+        Assert.assertTrue(permits.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertTrue(permits.tryAcquire(0, TimeUnit.NANOSECONDS));
+        Assert.assertFalse(permits.tryAcquire(1, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(0, permits.getQueueLength());//timeout waiter removed
+
+        permits.setPermits(1);
+        Assert.assertEquals(-1, permits.availablePermits());
+        permits.release();
+        Assert.assertFalse(permits.tryAcquire(0, TimeUnit.NANOSECONDS));
+        permits.release();
+        Assert.assertTrue(permits.tryAcquire(0, TimeUnit.NANOSECONDS));
+
+        permits.setPermits(3);
+        Assert.assertEquals(2, permits.availablePermits());
+        try {
+            permits.setPermits(0);
+            Assert.fail("Permits size check failed");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("Permits must be greater than zero", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeConnectionFuture;
+import org.stone.beecp.BeeDataSource;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.pool.exception.ConnectionGetTimeoutException;
+import org.stone.beecp.pool.exception.PoolInClearingException;
+
+import javax.sql.XAConnection;
+import java.sql.Connection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0064PoolAsyncBorrowTest extends TestCase {
+
+    public void testImmediateCompletion() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(1);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        BeeConnectionFuture<Connection> future = pool.getConnectionAsync();
+        Assert.assertTrue(future.isDone());
+        Connection con = future.get();
+        Assert.assertNotNull(con);
+        Assert.assertFalse(future.cancel(true));
+        Assert.assertFalse(future.isCancelled());
+        con.close();
+        Assert.assertEquals(1, pool.getIdleSize());
+        pool.close();
+    }
+
+    public void testCreateByServant() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+
+        BeeConnectionFuture<Connection> future = pool.getConnectionAsync();
+        Connection con = future.get(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(con);
+        Assert.assertEquals(1, pool.getUsingSize());
+        con.close();
+        pool.close();
+    }
+
+    public void testTransferOnReturn() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        BeeConnectionFuture<Connection> future = pool.getConnectionAsync();
+        Assert.assertFalse(future.isDone());
+        Assert.assertEquals(1, pool.getTransferWaitingSize());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        future.addListener(new Runnable() {
+            public void run() {
+                latch.countDown();
+            }
+        }, null);
+        con.close();//transfer to async borrower
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals(0, pool.getTransferWaitingSize());
+        Assert.assertEquals(1, pool.getUsingSize());
+        future.get().close();
+        pool.close();
+    }
+
+    public void testCompletionNotInReturnThread() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        BeeConnectionFuture<Connection> future = pool.getConnectionAsync();
+        final Thread[] listenerThread = new Thread[1];
+        final CountDownLatch latch = new CountDownLatch(1);
+        future.addListener(new Runnable() {
+            public void run() {
+                listenerThread[0] = Thread.currentThread();
+                latch.countDown();
+            }
+        }, null);
+        con.close();//only hand over connection to pool thread
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assert.assertNotSame(Thread.currentThread(), listenerThread[0]);
+        Assert.assertTrue(listenerThread[0].getName().endsWith("-asyncCompleter"));
+        future.get().close();
+        pool.close();
+    }
+
+    public void testWaitTimeout() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setMaxWait(200L);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        BeeConnectionFuture<Connection> future = pool.getConnectionAsync();
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("Async borrow timeout test failed");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof ConnectionGetTimeoutException);
+        }
+        Assert.assertEquals(0, pool.getTransferWaitingSize());
+        con.close();
+        pool.close();
+    }
+
+    public void testCancel() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        BeeConnectionFuture<Connection> future = pool.getConnectionAsync();
+        Assert.assertTrue(future.cancel(false));
+        Assert.assertTrue(future.isCancelled());
+        Assert.assertFalse(future.cancel(false));
+        Assert.assertEquals(0, pool.getTransferWaitingSize());
+        try {
+            future.get();
+            Assert.fail("Async borrow cancel test failed");
+        } catch (CancellationException e) {
+            //do nothing
+        }
+
+        con.close();
+        Assert.assertEquals(1, pool.getIdleSize());
+        pool.close();
+    }
+
+    public void testClearWaiters() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        pool.getConnection();
+        BeeConnectionFuture<Connection> future = pool.getConnectionAsync();
+        pool.clear(true);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("Async borrow clear test failed");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof PoolInClearingException);
+        }
+        pool.close();
+    }
+
+    public void testXaConnection() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+
+        BeeConnectionFuture<XAConnection> future = pool.getXAConnectionAsync();
+        XAConnection con = future.get(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(con.getXAResource());
+        con.close();
+        pool.close();
+    }
+
+    public void testDataSource() throws Exception {
+        BeeDataSource ds = new BeeDataSource(createDefault());
+        BeeConnectionFuture<Connection> future = ds.getConnectionAsync();
+        Connection con = future.get(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(con);
+        con.close();
+        ds.close();
+    }
+}
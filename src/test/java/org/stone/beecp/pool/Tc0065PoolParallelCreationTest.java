@@ -0,0 +1,101 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.base.TestUtil;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.objects.BorrowThread;
+import org.stone.beecp.objects.MockCreateExceptionConnectionFactory;
+import org.stone.beecp.objects.MockNetBlockConnectionFactory;
+import org.stone.beecp.pool.exception.ConnectionGetInterruptedException;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0065PoolParallelCreationTest extends TestCase {
+
+    public void testInitInParallel() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(4);
+        config.setMaxActive(4);
+        config.setParallelCreationSize(3);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Assert.assertEquals(4, pool.getTotalSize());
+        Assert.assertEquals(4, pool.getIdleSize());
+        Assert.assertEquals(0, getCreatingCount(pool));
+        pool.close();
+    }
+
+    public void testInitFailure() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(2);
+        config.setParallelCreationSize(2);
+        config.setConnectionFactory(new MockCreateExceptionConnectionFactory());
+        FastConnectionPool pool = new FastConnectionPool();
+        try {
+            pool.init(config);
+            Assert.fail("Parallel initial creation failure test failed");
+        } catch (SQLException e) {
+            Assert.assertEquals(0, pool.getTotalSize());
+        }
+    }
+
+    public void testCreateOutOfLock() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(4);
+        config.setBorrowSemaphoreSize(4);
+        config.setParallelCreationSize(2);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        config.setConnectionFactory(new MockNetBlockConnectionFactory());
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        //two borrowers are blocked in factory at same time
+        BorrowThread first = new BorrowThread(pool);
+        BorrowThread second = new BorrowThread(pool);
+        first.start();
+        second.start();
+        TestUtil.joinUtilWaiting(first);
+        TestUtil.joinUtilWaiting(second);
+        Assert.assertEquals(2, getCreatingCount(pool));
+        Assert.assertTrue(pool.getCreatingTime() > 0L);
+
+        //no free creation slot,so third borrower waits in queue
+        BorrowThread third = new BorrowThread(pool);
+        third.start();
+        TestUtil.joinUtilWaiting(third);
+        Assert.assertEquals(1, pool.getTransferWaitingSize());
+
+        Thread[] threads = pool.interruptOnCreation();
+        Assert.assertEquals(2, threads.length);
+        first.join();
+        second.join();
+        Assert.assertTrue(first.getFailureCause() instanceof ConnectionGetInterruptedException);
+        Assert.assertTrue(second.getFailureCause() instanceof ConnectionGetInterruptedException);
+        Assert.assertEquals(0, pool.getTotalSize());
+
+        third.interrupt();
+        third.join();
+        pool.close();//servant may be in creating for the third borrower
+        Assert.assertEquals(0, getCreatingCount(pool));
+    }
+
+    private int getCreatingCount(FastConnectionPool pool) throws Exception {
+        return ((AtomicInteger) getFieldValue(pool, "creatingCount")).get();
+    }
+}
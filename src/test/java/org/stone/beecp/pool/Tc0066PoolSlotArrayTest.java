@@ -0,0 +1,82 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0066PoolSlotArrayTest extends TestCase {
+
+    public void testSlotReuse() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(3);
+        config.setMaxActive(3);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        AtomicReferenceArray<PooledConnection> array = getPooledArray(pool);
+        Assert.assertEquals(3, array.length());
+        Assert.assertEquals(3, pool.getTotalSize());
+        PooledConnection second = array.get(1);
+        Assert.assertEquals(1, second.slotIndex);
+
+        pool.abandonOnReturn(second, ConnectionPoolStatics.DESC_RM_BAD);
+        Assert.assertNull(array.get(1));
+        Assert.assertEquals(2, pool.getTotalSize());
+        pool.abandonOnReturn(second, ConnectionPoolStatics.DESC_RM_BAD);//remove again
+        Assert.assertEquals(2, pool.getTotalSize());
+
+        Connection con1 = pool.getConnection();
+        Connection con2 = pool.getConnection();
+        Connection con3 = pool.getConnection();//fill the empty slot
+        Assert.assertSame(array, getPooledArray(pool));
+        Assert.assertNotNull(array.get(1));
+        Assert.assertEquals(1, array.get(1).slotIndex);
+        Assert.assertEquals(3, pool.getTotalSize());
+        Assert.assertEquals(3, pool.getUsingSize());
+        con1.close();
+        con2.close();
+        con3.close();
+        pool.close();
+    }
+
+    public void testReallocateOnRestart() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(2);
+        config.setMaxActive(2);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        AtomicReferenceArray<PooledConnection> array = getPooledArray(pool);
+
+        pool.clear(false, config);//same size,array is reused
+        Assert.assertSame(array, getPooledArray(pool));
+        Assert.assertEquals(2, pool.getTotalSize());
+
+        BeeDataSourceConfig config2 = createDefault();
+        config2.setInitialSize(4);
+        config2.setMaxActive(4);
+        pool.clear(false, config2);
+        Assert.assertEquals(4, getPooledArray(pool).length());
+        Assert.assertEquals(4, pool.getTotalSize());
+        Assert.assertEquals(4, pool.getIdleSize());
+        pool.close();
+    }
+
+    private AtomicReferenceArray<PooledConnection> getPooledArray(FastConnectionPool pool) throws Exception {
+        return (AtomicReferenceArray<PooledConnection>) getFieldValue(pool, "pooledArray");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.base.TestUtil;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.objects.BorrowThread;
+import org.stone.tools.atomic.StripedCounter;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.stone.base.TestUtil.setFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0067PoolMonitorCounterTest extends TestCase {
+
+    public void testIdleCount() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(2);
+        config.setMaxActive(4);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        Assert.assertEquals(2, pool.getIdleSize());
+
+        Connection con1 = pool.getConnection();
+        Connection con2 = pool.getConnection();
+        Connection con3 = pool.getConnection();
+        Assert.assertEquals(0, pool.getIdleSize());
+        Assert.assertEquals(3, pool.getUsingSize());
+        con1.close();
+        con2.close();
+        Assert.assertEquals(2, pool.getIdleSize());
+        Assert.assertEquals(1, pool.getUsingSize());
+
+        pool.clear(true);
+        Assert.assertEquals(0, pool.getIdleSize());
+        Assert.assertEquals(0, pool.getTotalSize());
+        con3.close();
+        pool.close();
+    }
+
+    public void testCountersUnderConcurrency() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(4);
+        final FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        final AtomicInteger failedCount = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        try {
+                            pool.getConnection().close();
+                        } catch (Exception e) {
+                            failedCount.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        Assert.assertEquals(0, failedCount.get());
+        Assert.assertEquals(pool.getTotalSize(), pool.getIdleSize());
+        Assert.assertEquals(0, pool.getTransferWaitingSize());
+
+        setFieldValue(pool, "enableExactMonitorScan", true);
+        Assert.assertEquals(pool.getTotalSize(), pool.getIdleSize());
+        Assert.assertEquals(0, pool.getTransferWaitingSize());
+        pool.close();
+    }
+
+    public void testTransferWaitingCount() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setBorrowSemaphoreSize(2);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        BorrowThread waiter = new BorrowThread(pool);
+        waiter.start();
+        TestUtil.joinUtilWaiting(waiter);
+        Assert.assertEquals(1, pool.getTransferWaitingSize());
+
+        con.close();//transfer to waiter
+        waiter.join();
+        Assert.assertEquals(0, pool.getTransferWaitingSize());
+        waiter.getConnection().close();
+        pool.close();
+    }
+
+    public void testStripedCounter() {
+        StripedCounter counter = new StripedCounter();
+        counter.increment();
+        counter.add(5L);
+        counter.decrement();
+        Assert.assertEquals(5L, counter.sum());
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.base.TestUtil;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.objects.BorrowThread;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0068PoolBorrowLatencyTest extends TestCase {
+
+    public void testStatisticsDisabled() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        pool.getConnection().close();
+        Assert.assertTrue(pool.getBorrowLatencyPercentiles().isEmpty());
+        Assert.assertTrue(pool.getPoolMonitorVo().getBorrowLatencyPercentiles().isEmpty());
+        pool.close();
+    }
+
+    public void testPhaseRecording() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setBorrowSemaphoreSize(2);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10));
+        config.setEnableBorrowLatencyStatistics(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();//search and creation
+        con.close();
+        con = pool.getConnection();//threadLocal hit
+
+        BorrowThread waiter = new BorrowThread(pool);
+        waiter.start();
+        TestUtil.joinUtilWaiting(waiter);
+        con.close();//transfer to waiter
+        waiter.join();
+        waiter.getConnection().close();
+
+        Map<String, Long> percentiles = pool.getPoolMonitorVo().getBorrowLatencyPercentiles();
+        Assert.assertEquals(1L, percentiles.get("threadLocalHit.count").longValue());
+        Assert.assertEquals(2L, percentiles.get("semaphoreWait.count").longValue());
+        Assert.assertEquals(2L, percentiles.get("search.count").longValue());
+        Assert.assertEquals(1L, percentiles.get("creation.count").longValue());
+        Assert.assertEquals(1L, percentiles.get("transferWait.count").longValue());
+
+        long p50 = percentiles.get("transferWait.p50");
+        long p99 = percentiles.get("transferWait.p99");
+        long max = percentiles.get("transferWait.max");
+        Assert.assertTrue(p50 > 0L && p50 <= p99 && p99 <= max);
+        pool.close();
+    }
+
+    public void testPercentiles() {
+        BorrowLatencyStatistics statistics = new BorrowLatencyStatistics();
+        long now = System.nanoTime();
+        for (int i = 0; i < 99; i++)
+            statistics.record(BorrowLatencyStatistics.PHASE_SEARCH, now);//elapsed time is small
+        statistics.record(BorrowLatencyStatistics.PHASE_SEARCH, now - TimeUnit.SECONDS.toNanos(1));
+
+        Map<String, Long> percentiles = statistics.getPercentiles();
+        Assert.assertEquals(100L, percentiles.get("search.count").longValue());
+        Assert.assertTrue(percentiles.get("search.p50") < TimeUnit.SECONDS.toNanos(1));
+        Assert.assertTrue(percentiles.get("search.p999") >= TimeUnit.SECONDS.toNanos(1));
+        Assert.assertTrue(percentiles.get("search.max") >= TimeUnit.SECONDS.toNanos(1));
+        Assert.assertEquals(0L, percentiles.get("creation.count").longValue());
+        Assert.assertEquals(0L, percentiles.get("creation.p99").longValue());
+    }
+}
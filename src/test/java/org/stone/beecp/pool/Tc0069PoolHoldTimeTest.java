@@ -0,0 +1,72 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0069PoolHoldTimeTest extends TestCase {
+
+    public void testStatisticsDisabled() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        pool.getConnection().close();
+
+        Assert.assertEquals(0L, pool.getAverageHoldTime());
+        Assert.assertTrue(pool.getLongHoldingSites().isEmpty());
+        Assert.assertTrue(pool.getPoolMonitorVo().getLongHoldingSites().isEmpty());
+        pool.close();
+    }
+
+    public void testHoldTimeWithoutSite() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setEnableHoldTimeStatistics(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50L));
+        con.close();
+        Assert.assertTrue(pool.getAverageHoldTime() >= 50L);
+        Assert.assertTrue(pool.getLongHoldingSites().isEmpty());
+        pool.close();
+    }
+
+    public void testLongHoldingSites() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(2);
+        config.setEnableHoldTimeStatistics(true);
+        config.setBorrowStackSampleInterval(1);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        pool.getConnection().close();
+        Connection con = pool.getConnection();//still in using
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50L));
+
+        Map<String, Long> siteMap = pool.getLongHoldingSites();
+        Assert.assertEquals(2, siteMap.size());
+        String longSite = siteMap.keySet().iterator().next();
+        Assert.assertTrue(longSite.startsWith(Tc0069PoolHoldTimeTest.class.getName() + ".testLongHoldingSites"));
+        Assert.assertTrue(siteMap.get(longSite) >= 50L);
+
+        con.close();
+        Assert.assertEquals(siteMap.keySet(), pool.getPoolMonitorVo().getLongHoldingSites().keySet());
+        pool.close();
+    }
+}
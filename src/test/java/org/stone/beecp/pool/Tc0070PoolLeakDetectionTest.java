@@ -0,0 +1,79 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.stone.base.TestUtil.invokeMethod2;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0070PoolLeakDetectionTest extends TestCase {
+
+    public void testLeakDisabled() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Connection con = pool.getConnection();
+        invokeMethod2(pool, "closeIdleTimeoutConnection");
+
+        Assert.assertEquals(0L, pool.getLeakCount());
+        Assert.assertTrue(pool.getLeakReports().isEmpty());
+        con.close();
+        pool.close();
+    }
+
+    public void testLeakWithStack() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setLeakDetectionThreshold(50L);
+        config.setBorrowStackSampleInterval(1);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        invokeMethod2(pool, "closeIdleTimeoutConnection");
+        Assert.assertEquals(0L, pool.getLeakCount());//not reach threshold
+
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L));
+        invokeMethod2(pool, "closeIdleTimeoutConnection");
+        invokeMethod2(pool, "closeIdleTimeoutConnection");//reported once in a borrowing
+        Assert.assertEquals(1L, pool.getLeakCount());
+        List<String> reports = pool.getLeakReports();
+        Assert.assertEquals(1, reports.size());
+        Assert.assertTrue(reports.get(0).contains(Tc0070PoolLeakDetectionTest.class.getName() + ".testLeakWithStack"));
+
+        con.close();
+        pool.getConnection().close();
+        invokeMethod2(pool, "closeIdleTimeoutConnection");
+        Assert.assertEquals(1L, pool.getLeakCount());
+        pool.close();
+    }
+
+    public void testLeakOnHoldTimeout() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setHoldTimeout(50L);
+        config.setLeakDetectionThreshold(TimeUnit.MINUTES.toMillis(10L));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L));
+        invokeMethod2(pool, "closeIdleTimeoutConnection");
+        Assert.assertTrue(con.isClosed());
+        Assert.assertEquals(1L, pool.getLeakCount());
+        Assert.assertTrue(pool.getLeakReports().get(0).contains("stack not sampled"));
+        pool.close();
+    }
+}
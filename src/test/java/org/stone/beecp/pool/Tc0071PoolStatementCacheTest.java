@@ -0,0 +1,176 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.driver.MockStatement;
+
+import java.sql.*;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0071PoolStatementCacheTest extends TestCase {
+    private static final String SQL = "select 1 from dual";
+
+    public void testCacheDisabled() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Connection con = pool.getConnection();
+
+        PreparedStatement ps1 = con.prepareStatement(SQL);
+        Statement raw1 = getRaw(ps1);
+        Assert.assertFalse(ps1.isPoolable());
+        ps1.close();
+        Assert.assertTrue(raw1.isClosed());
+        PreparedStatement ps2 = con.prepareStatement(SQL);
+        Assert.assertNotSame(raw1, getRaw(ps2));
+        ps2.close();
+        con.close();
+        pool.close();
+    }
+
+    public void testReuseOnSameKey() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setPreparedStatementCacheSize(10);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        Connection con = pool.getConnection();
+
+        PreparedStatement ps1 = con.prepareStatement(SQL);
+        PreparedStatement ps2 = con.prepareStatement(SQL);//in using,not taken from cache
+        Statement raw1 = getRaw(ps1);
+        Statement raw2 = getRaw(ps2);
+        Assert.assertNotSame(raw1, raw2);
+        Assert.assertTrue(ps1.isPoolable());
+        ps1.close();
+        Assert.assertFalse(raw1.isClosed());
+        ps2.close();//same key statement in cache,so closed
+        Assert.assertTrue(raw2.isClosed());
+
+        PreparedStatement ps3 = con.prepareStatement(SQL);
+        Assert.assertSame(raw1, getRaw(ps3));
+        PreparedStatement ps4 = con.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);//different key
+        Assert.assertNotSame(raw1, getRaw(ps4));
+        ps3.close();
+        ps4.close();
+
+        CallableStatement cs1 = con.prepareCall(SQL);
+        Statement rawCs1 = getRaw(cs1);
+        Assert.assertNotSame(raw1, rawCs1);
+        cs1.close();
+        con.close();//cached statements kept on connection return
+
+        con = pool.getConnection();
+        CallableStatement cs2 = con.prepareCall(SQL);
+        Assert.assertSame(rawCs1, getRaw(cs2));
+        cs2.close();
+        con.close();
+        pool.close();
+        Assert.assertTrue(raw1.isClosed());//closed on connection removal
+        Assert.assertTrue(rawCs1.isClosed());
+    }
+
+    public void testEvictionAndNotPoolable() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setPreparedStatementCacheSize(1);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        Connection con = pool.getConnection();
+
+        PreparedStatement ps1 = con.prepareStatement(SQL);
+        PreparedStatement ps2 = con.prepareStatement(SQL, Statement.RETURN_GENERATED_KEYS);
+        Statement raw1 = getRaw(ps1);
+        Statement raw2 = getRaw(ps2);
+        ps1.close();
+        ps2.close();//evict the eldest
+        Assert.assertTrue(raw1.isClosed());
+        Assert.assertFalse(raw2.isClosed());
+
+        PreparedStatement ps3 = con.prepareStatement(SQL, Statement.RETURN_GENERATED_KEYS);
+        Assert.assertSame(raw2, getRaw(ps3));
+        ps3.setPoolable(false);
+        Assert.assertFalse(ps3.isPoolable());
+        ps3.close();
+        Assert.assertTrue(raw2.isClosed());
+        con.close();
+        pool.close();
+    }
+
+    public void testAttributesRestoredOnReturn() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setPreparedStatementCacheSize(10);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        Connection con = pool.getConnection();
+
+        PreparedStatement ps1 = con.prepareStatement(SQL);
+        Statement raw1 = getRaw(ps1);
+        ps1.setMaxRows(10);
+        ps1.setMaxRows(20);//original value saved once
+        ps1.setQueryTimeout(5);
+        ps1.setFetchSize(100);
+        ps1.setMaxFieldSize(64);
+        ps1.setLargeMaxRows(Integer.MAX_VALUE + 1L);
+        ((MockStatement) raw1).setWarning(new SQLWarning("warning"));
+        ps1.close();
+        Assert.assertFalse(raw1.isClosed());
+        Assert.assertEquals(0L, raw1.getLargeMaxRows());
+        Assert.assertNull(raw1.getWarnings());
+        Assert.assertEquals(0, raw1.getMaxRows());
+        Assert.assertEquals(0, raw1.getQueryTimeout());
+        Assert.assertEquals(0, raw1.getFetchSize());
+        Assert.assertEquals(0, raw1.getMaxFieldSize());
+
+        PreparedStatement ps2 = con.prepareStatement(SQL);
+        Assert.assertSame(raw1, getRaw(ps2));
+        Assert.assertEquals(0, ps2.getMaxRows());
+        ps2.setCursorName("cursor1");//not restorable,so evicted
+        ps2.close();
+        Assert.assertTrue(raw1.isClosed());
+        con.close();
+        pool.close();
+    }
+
+    public void testKeyArraysCopied() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setPreparedStatementCacheSize(10);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        Connection con = pool.getConnection();
+
+        int[] columnIndexes = {1, 2};
+        PreparedStatement ps1 = con.prepareStatement(SQL, columnIndexes);
+        Statement raw1 = getRaw(ps1);
+        ps1.close();
+        columnIndexes[0] = 3;//change after preparation
+        PreparedStatement ps2 = con.prepareStatement(SQL, new int[]{1, 2});
+        Assert.assertSame(raw1, getRaw(ps2));
+        ps2.close();
+
+        String[] columnNames = {"id"};
+        PreparedStatement ps3 = con.prepareStatement(SQL, columnNames);
+        Statement raw3 = getRaw(ps3);
+        ps3.close();
+        columnNames[0] = "name";
+        PreparedStatement ps4 = con.prepareStatement(SQL, new String[]{"id"});
+        Assert.assertSame(raw3, getRaw(ps4));
+        ps4.close();
+        con.close();
+        pool.close();
+    }
+
+    private static Statement getRaw(Statement proxy) throws Exception {
+        return (Statement) getFieldValue(proxy, ProxyStatementBase.class, "raw");
+    }
+}
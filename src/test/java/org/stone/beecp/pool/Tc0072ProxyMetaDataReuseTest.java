@@ -0,0 +1,54 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.*;
+
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0072ProxyMetaDataReuseTest extends TestCase {
+
+    public void testResultSetMetaDataReuse() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setEnableThreadLocal(false);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        Statement st = con.createStatement();
+        ResultSet rs = st.executeQuery("select 1 from dual");
+        ResultSetMetaData metaData = rs.getMetaData();
+        Assert.assertSame(metaData, rs.getMetaData());
+
+        rs.close();
+        try {
+            rs.getMetaData();
+            Assert.fail("ResultSetMetaData access test failed after resultSet closed");
+        } catch (SQLException e) {
+            Assert.assertEquals("No operations allowed after resultSet closed", e.getMessage());
+        }
+        try {
+            metaData.getColumnCount();
+            Assert.fail("ResultSetMetaData access test failed after resultSet closed");
+        } catch (SQLException e) {
+            Assert.assertEquals("No operations allowed after resultSet closed", e.getMessage());
+        }
+
+        ResultSet rs2 = st.executeQuery("select 1 from dual");
+        Assert.assertNotSame(metaData, rs2.getMetaData());
+        st.close();
+        con.close();
+        pool.close();
+    }
+}
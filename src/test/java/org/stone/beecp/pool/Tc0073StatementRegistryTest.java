@@ -0,0 +1,92 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0073StatementRegistryTest extends TestCase {
+
+    public void testCloseInRandomOrder() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+
+        List<Statement> statementList = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++)
+            statementList.add(con.createStatement());
+        Assert.assertEquals(100, p.openStmSize);
+
+        Collections.shuffle(statementList);
+        for (int i = 0; i < 50; i++)
+            statementList.get(i).close();
+        Assert.assertEquals(50, p.openStmSize);
+        statementList.get(0).close();//closed again
+        Assert.assertEquals(50, p.openStmSize);
+
+        ProxyStatementBase[] openStatements = (ProxyStatementBase[]) getFieldValue(p, "openStatements");
+        for (int i = 0; i < p.openStmSize; i++) {
+            Assert.assertEquals(i, openStatements[i].registryIndex);
+            Assert.assertFalse(openStatements[i].isClosed());
+        }
+
+        con.close();//remained statements closed with connection
+        Assert.assertEquals(0, p.openStmSize);
+        for (Statement statement : statementList)
+            Assert.assertTrue(statement.isClosed());
+        pool.close();
+    }
+
+    public void testCloseInOtherThreads() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+
+        final List<Statement> statementList = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++)
+            statementList.add(con.createStatement());
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    for (int j = offset; j < statementList.size(); j += 4) {
+                        try {
+                            statementList.get(j).close();
+                        } catch (Exception e) {
+                            //do nothing
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (int i = 0; i < 500; i++)
+            con.createStatement().close();
+        for (Thread thread : threads)
+            thread.join();
+
+        Assert.assertEquals(0, p.openStmSize);
+        con.close();
+        pool.close();
+    }
+}
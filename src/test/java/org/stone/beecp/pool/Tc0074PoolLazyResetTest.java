@@ -0,0 +1,110 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0074PoolLazyResetTest extends TestCase {
+
+    public void testResetOnReturn() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setDefaultAutoCommit(true);
+        config.setDefaultReadOnly(false);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+        con.setAutoCommit(false);
+        con.setReadOnly(true);
+        con.close();
+        Assert.assertTrue(p.rawConn.getAutoCommit());
+        Assert.assertFalse(p.rawConn.isReadOnly());
+        pool.close();
+    }
+
+    public void testResetOnNextBorrow() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setDefaultAutoCommit(true);
+        config.setDefaultReadOnly(false);
+        config.setEnableLazyReset(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+        con.setAutoCommit(false);
+        con.setReadOnly(true);
+        con.close();
+        Assert.assertFalse(p.rawConn.getAutoCommit());//pending
+        Assert.assertTrue(p.rawConn.isReadOnly());//pending
+        Assert.assertEquals(2, getFieldValue(p, "resetCnt"));
+
+        con = pool.getConnection();
+        Assert.assertSame(p, getFieldValue(con, ProxyBaseWrapper.class, "p"));
+        Assert.assertTrue(con.getAutoCommit());
+        Assert.assertFalse(con.isReadOnly());
+        Assert.assertEquals(0, getFieldValue(p, "resetCnt"));
+        Assert.assertTrue(p.curAutoCommit);
+        con.close();
+        pool.close();
+    }
+
+    public void testResetOnAsyncBorrow() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setDefaultAutoCommit(true);
+        config.setDefaultReadOnly(false);
+        config.setEnableLazyReset(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+        con.setAutoCommit(false);
+        con.setReadOnly(true);
+        con.close();
+        Assert.assertEquals(2, getFieldValue(p, "resetCnt"));
+
+        con = pool.getConnectionAsync().get(5, TimeUnit.SECONDS);//resets applied out of caller thread
+        Assert.assertSame(p, getFieldValue(con, ProxyBaseWrapper.class, "p"));
+        Assert.assertTrue(con.getAutoCommit());
+        Assert.assertFalse(con.isReadOnly());
+        Assert.assertEquals(0, getFieldValue(p, "resetCnt"));
+        con.close();
+        pool.close();
+    }
+
+    public void testNoResetOnRemoval() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setEnableLazyReset(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+        con.setReadOnly(true);
+        con.close();
+        Assert.assertEquals(1, getFieldValue(p, "resetCnt"));
+        pool.close();//closed without pending resets
+        Assert.assertEquals(1, getFieldValue(p, "resetCnt"));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.objects.MockWarningsConnectionFactory;
+import org.stone.beecp.objects.MockWarningsConnectionFactory.WarningsConnection;
+
+import java.sql.Connection;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0075PoolClearWarningsTest extends TestCase {
+
+    public void testForceClear() throws Exception {
+        FastConnectionPool pool = createPool(true, false);
+        Connection con = pool.getConnection();
+        WarningsConnection raw = getRaw(con);
+        int count = raw.getClearWarningsCount();//one call on template probe
+        con.close();
+        Assert.assertEquals(count + 1, raw.getClearWarningsCount());
+        pool.close();
+    }
+
+    public void testClearOnlyWhenGot() throws Exception {
+        FastConnectionPool pool = createPool(false, true);
+        Connection con = pool.getConnection();
+        WarningsConnection raw = getRaw(con);
+        int count = raw.getClearWarningsCount();
+        con.close();//no warnings got
+        Assert.assertEquals(count, raw.getClearWarningsCount());
+
+        con = pool.getConnection();
+        Assert.assertNotNull(con.getWarnings());
+        con.close();//warnings got,so clear them
+        Assert.assertEquals(count + 1, raw.getClearWarningsCount());
+
+        con = pool.getConnection();
+        Assert.assertNotNull(con.getWarnings());
+        con.clearWarnings();//cleared by borrower
+        con.close();
+        Assert.assertEquals(count + 2, raw.getClearWarningsCount());
+        pool.close();
+    }
+
+    public void testNoWarnings() throws Exception {
+        FastConnectionPool pool = createPool(false, false);
+        Connection con = pool.getConnection();
+        WarningsConnection raw = getRaw(con);
+        int count = raw.getClearWarningsCount();
+        Assert.assertNull(con.getWarnings());
+        con.close();
+        Assert.assertEquals(count, raw.getClearWarningsCount());
+        pool.close();
+    }
+
+    private static FastConnectionPool createPool(boolean forceClearWarnings, boolean withWarning) throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setForceClearWarnings(forceClearWarnings);
+        config.setConnectionFactory(new MockWarningsConnectionFactory(withWarning));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        return pool;
+    }
+
+    private static WarningsConnection getRaw(Connection proxy) throws Exception {
+        return (WarningsConnection) getFieldValue(proxy, ProxyConnectionBase.class, "raw");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.driver.MockConnection;
+
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.base.TestUtil.invokeMethod2;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+import static org.stone.beecp.pool.ConnectionPoolStatics.CON_IDLE;
+
+public class Tc0076PoolBackgroundAliveTest extends TestCase {
+
+    public void testDisabled() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Assert.assertNull(getFieldValue(pool, "aliveTestThread"));
+        pool.close();
+    }
+
+    public void testAliveInCompeteMode() throws Exception {
+        testAlive(false);
+    }
+
+    public void testAliveInFairMode() throws Exception {
+        testAlive(true);
+    }
+
+    public void testBadRemoved() throws Exception {
+        FastConnectionPool pool = createPool(false);
+        PooledConnection p = getIdleConnection(pool);
+        p.lastAccessTime = System.currentTimeMillis() - 1000L;
+        ((MockConnection) p.rawConn).setValid(false);
+
+        invokeMethod2(pool, "testIdleConnections");
+        Assert.assertEquals(0, pool.getTotalSize());
+        pool.close();
+    }
+
+    public void testByThread() throws Exception {
+        FastConnectionPool pool = createPool(false);
+        PooledConnection p = getIdleConnection(pool);
+        long accessTime = System.currentTimeMillis() - 1000L;
+        p.lastAccessTime = accessTime;
+
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200L));
+        Assert.assertTrue(p.lastAccessTime > accessTime);
+        pool.close();
+        Thread thread = (Thread) getFieldValue(pool, "aliveTestThread");
+        thread.join(1000L);
+        Assert.assertFalse(thread.isAlive());
+    }
+
+    private static void testAlive(boolean fairMode) throws Exception {
+        FastConnectionPool pool = createPool(fairMode);
+        PooledConnection p = getIdleConnection(pool);
+        long recentTime = System.currentTimeMillis();
+        p.lastAccessTime = recentTime;
+        invokeMethod2(pool, "testIdleConnections");
+        Assert.assertEquals(recentTime, p.lastAccessTime);//not near assume time
+
+        long accessTime = System.currentTimeMillis() - 1000L;
+        p.lastAccessTime = accessTime;
+        invokeMethod2(pool, "testIdleConnections");
+        Assert.assertTrue(p.lastAccessTime > accessTime);
+        Assert.assertEquals(CON_IDLE, p.state);
+        Assert.assertEquals(1, pool.getIdleSize());
+
+        Connection con = pool.getConnection();
+        Assert.assertSame(p, getFieldValue(con, ProxyBaseWrapper.class, "p"));
+        con.close();
+        pool.close();
+    }
+
+    private static FastConnectionPool createPool(boolean fairMode) throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setFairMode(fairMode);
+        config.setInitialSize(1);
+        config.setMaxActive(1);
+        config.setAliveAssumeTime(500L);
+        config.setAliveTestInterval(50L);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        return pool;
+    }
+
+    private static PooledConnection getIdleConnection(FastConnectionPool pool) throws Exception {
+        AtomicReferenceArray<PooledConnection> array = (AtomicReferenceArray<PooledConnection>) getFieldValue(pool, "pooledArray");
+        return array.get(0);
+    }
+}
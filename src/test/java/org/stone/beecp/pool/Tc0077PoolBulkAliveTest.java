@@ -0,0 +1,127 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeConnectionFactory;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.driver.MockConnection;
+
+import java.sql.Connection;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.base.TestUtil.invokeMethod2;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+import static org.stone.beecp.pool.ConnectionPoolStatics.CON_IDLE;
+
+public class Tc0077PoolBulkAliveTest extends TestCase {
+
+    public void testBulkOnIdleScan() throws Exception {
+        FastConnectionPool pool = createPool(null);
+        Assert.assertNotNull(getFieldValue(pool, "aliveTestExecutor"));
+        AtomicReferenceArray<PooledConnection> array = getPooledArray(pool);
+        long accessTime = System.currentTimeMillis() - 1000L;
+        for (int i = 0; i < 4; i++)
+            array.get(i).lastAccessTime = accessTime;
+        PooledConnection bad = array.get(1);
+        ((MockConnection) bad.rawConn).setValid(false);
+
+        invokeMethod2(pool, "closeIdleTimeoutConnection");
+        Assert.assertEquals(3, pool.getTotalSize());
+        Assert.assertEquals(3, pool.getIdleSize());
+        for (int i = 0; i < 4; i++) {
+            PooledConnection p = array.get(i);
+            if (p == null) continue;
+            Assert.assertNotSame(bad, p);
+            Assert.assertEquals(CON_IDLE, p.state);
+            Assert.assertTrue(p.lastAccessTime > accessTime);
+        }
+
+        Connection con = pool.getConnection();
+        con.close();
+        pool.close();
+    }
+
+    public void testExecutorRebuiltOnRestart() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setAliveTestConcurrency(4);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        ThreadPoolExecutor executor1 = (ThreadPoolExecutor) getFieldValue(pool, "aliveTestExecutor");
+        Assert.assertEquals(4, executor1.getMaximumPoolSize());
+
+        BeeDataSourceConfig config2 = createDefault();
+        config2.setAliveTestConcurrency(2);
+        pool.clear(false, config2);
+        ThreadPoolExecutor executor2 = (ThreadPoolExecutor) getFieldValue(pool, "aliveTestExecutor");
+        Assert.assertTrue(executor1.isShutdown());
+        Assert.assertEquals(2, executor2.getMaximumPoolSize());
+
+        BeeDataSourceConfig config3 = createDefault();
+        config3.setAliveTestConcurrency(1);//bulk mode disabled
+        pool.clear(false, config3);
+        Assert.assertTrue(executor2.isShutdown());
+        Assert.assertNull(getFieldValue(pool, "aliveTestExecutor"));
+        pool.close();
+    }
+
+    public void testBulkTimeout() throws Exception {
+        final SlowValidConnection slowCon = new SlowValidConnection();
+        FastConnectionPool pool = createPool(slowCon);
+        AtomicReferenceArray<PooledConnection> array = getPooledArray(pool);
+        long accessTime = System.currentTimeMillis() - 1000L;
+        for (int i = 0; i < 4; i++)
+            array.get(i).lastAccessTime = accessTime;
+
+        slowCon.slow = true;
+        invokeMethod2(pool, "closeIdleTimeoutConnection");
+        Assert.assertEquals(3, pool.getTotalSize());
+        Assert.assertEquals(3, pool.getIdleSize());
+        pool.close();
+    }
+
+    private static FastConnectionPool createPool(final MockConnection firstCon) throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(4);
+        config.setMaxActive(4);
+        config.setAliveTestTimeout(1);
+        config.setAliveTestConcurrency(2);
+        if (firstCon != null) {
+            config.setConnectionFactory(new BeeConnectionFactory() {
+                private int count;
+
+                public Connection create() {
+                    return count++ == 0 ? firstCon : new MockConnection();
+                }
+            });
+        }
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        return pool;
+    }
+
+    private static AtomicReferenceArray<PooledConnection> getPooledArray(FastConnectionPool pool) throws Exception {
+        return (AtomicReferenceArray<PooledConnection>) getFieldValue(pool, "pooledArray");
+    }
+
+    private static final class SlowValidConnection extends MockConnection {
+        private volatile boolean slow;
+
+        public boolean isValid(int timeout) {
+            if (slow) LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(3L));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeConnectionFactory;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.driver.MockConnection;
+import org.stone.beecp.objects.MockConnectionAliveTest;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0078PoolAliveTestCostTest extends TestCase {
+
+    public void testProbeOnCachedStatement() throws Exception {
+        FastConnectionPool pool = createPool("SELECT 1");
+        CountConnection raw = (CountConnection) getPooledConnection(pool).rawConn;
+        int statementCount = raw.statementCount;
+        int autoCommitCount = raw.autoCommitCount;
+
+        PooledConnection p = borrowOnAliveTest(pool);
+        Statement st = p.aliveTestStatement;
+        Assert.assertNotNull(st);
+        Assert.assertEquals(statementCount + 1, raw.statementCount);
+        Assert.assertEquals(autoCommitCount, raw.autoCommitCount);
+
+        Assert.assertSame(p, borrowOnAliveTest(pool));
+        Assert.assertSame(st, p.aliveTestStatement);
+        Assert.assertEquals(statementCount + 1, raw.statementCount);
+        pool.close();
+        Assert.assertTrue(st.isClosed());
+    }
+
+    public void testNotProbeInTransaction() throws Exception {
+        FastConnectionPool pool = createPool("SELECT now()");
+        CountConnection raw = (CountConnection) getPooledConnection(pool).rawConn;
+        int autoCommitCount = raw.autoCommitCount;
+
+        PooledConnection p = borrowOnAliveTest(pool);
+        Assert.assertNull(p.aliveTestStatement);
+        Assert.assertEquals(autoCommitCount + 2, raw.autoCommitCount);//false,then true
+        pool.close();
+    }
+
+    public void testCustomAliveTest() throws Exception {
+        MockConnectionAliveTest aliveTest = new MockConnectionAliveTest();
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setAliveTest(aliveTest);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        PooledConnection p = borrowOnAliveTest(pool);
+        Assert.assertEquals(1, aliveTest.getTestCount());
+        aliveTest.setAlive(false);
+        Assert.assertNotSame(p, borrowOnAliveTest(pool));//bad one removed
+        Assert.assertEquals(2, aliveTest.getTestCount());
+        pool.close();
+    }
+
+    public void testAliveTestConfig() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setAliveTestClassName(MockConnectionAliveTest.class.getName());
+        Assert.assertTrue(config.check().getAliveTest() instanceof MockConnectionAliveTest);
+
+        config = createDefault();
+        config.setAliveTestClass(MockConnectionAliveTest.class);
+        Assert.assertTrue(config.check().getAliveTest() instanceof MockConnectionAliveTest);
+
+        config = createDefault();
+        config.setAliveTestClassName("org.stone.beecp.objects.NotExistedAliveTest");
+        try {
+            config.check();
+            fail("Alive test class not found");
+        } catch (Exception e) {
+            Assert.assertTrue(e.getMessage().contains("Not found connection alive test class"));
+        }
+    }
+
+    private static PooledConnection getPooledConnection(FastConnectionPool pool) throws Exception {
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+        con.close();
+        return p;
+    }
+
+    //borrow a connection which passed alive test,then return it
+    private static PooledConnection borrowOnAliveTest(FastConnectionPool pool) throws Exception {
+        getPooledConnection(pool).lastAccessTime = System.currentTimeMillis() - 1000L;//reach assume time
+        return getPooledConnection(pool);
+    }
+
+    private static FastConnectionPool createPool(String testSql) throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setDefaultAutoCommit(true);
+        config.setAliveTestSql(testSql);
+        config.setConnectionFactory(new BeeConnectionFactory() {
+            public Connection create() {
+                return new CountConnection();
+            }
+        });
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        return pool;
+    }
+
+    //not support isValid,so tested by sql
+    private static final class CountConnection extends MockConnection {
+        private int statementCount;
+        private int autoCommitCount;
+
+        CountConnection() {
+            setValid(false);
+        }
+
+        public Statement createStatement() {
+            statementCount++;
+            return super.createStatement();
+        }
+
+        public void setAutoCommit(boolean autoCommit) {
+            autoCommitCount++;
+            super.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeConnectionFactory;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.driver.MockConnection;
+import org.stone.beecp.driver.MockPingConnection;
+import org.stone.beecp.driver.MockRoundTripConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0079ConnectionAliveTestAdapterTest extends TestCase {
+
+    public void testMySqlPing() throws Exception {
+        MockRoundTripConnection con = new MockRoundTripConnection(0L, false);
+        ConnectionAliveTestByMySqlPing aliveTest = new ConnectionAliveTestByMySqlPing(MockPingConnection.class.getName());
+        Assert.assertTrue(aliveTest.isAlive(con, 1));
+        Assert.assertEquals(1, con.getRoundTripCount());
+        Assert.assertTrue(aliveTest.isAlive(con, 1));
+        Assert.assertEquals(2, con.getRoundTripCount());
+
+        con.close();
+        try {
+            aliveTest.isAlive(con, 1);
+            fail("Ping on closed connection");
+        } catch (SQLException e) {
+            Assert.assertEquals("Connection closed", e.getMessage());
+        }
+    }
+
+    public void testMySqlPingNotFound() throws Exception {
+        try {
+            new ConnectionAliveTestByMySqlPing().isAlive(new MockConnection(), 1);
+            fail("MySQL connection classes not found");
+        } catch (SQLException e) {
+            Assert.assertTrue(e.getMessage().contains("pingInternal"));
+        }
+    }
+
+    public void testEmptyQuery() throws Exception {
+        MockRoundTripConnection con = new MockRoundTripConnection(0L, false);
+        con.setAutoCommit(true);
+        int count = con.getRoundTripCount();
+        Assert.assertTrue(new ConnectionAliveTestByEmptyQuery().isAlive(con, 1));
+        Assert.assertEquals(count + 1, con.getRoundTripCount());
+
+        con.setAutoCommit(false);
+        count = con.getRoundTripCount();
+        Assert.assertTrue(new ConnectionAliveTestByEmptyQuery().isAlive(con, 1));
+        Assert.assertEquals(count + 2, con.getRoundTripCount());//execute and rollback
+    }
+
+    public void testPingInPool() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setAliveTest(new ConnectionAliveTestByMySqlPing(MockPingConnection.class.getName()));
+        config.setConnectionFactory(new BeeConnectionFactory() {
+            public Connection create() {
+                return new MockRoundTripConnection(0L, false);
+            }
+        });
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+        con.close();
+        MockRoundTripConnection raw = (MockRoundTripConnection) p.rawConn;
+        int count = raw.getRoundTripCount();
+        p.lastAccessTime = System.currentTimeMillis() - 1000L;
+        pool.getConnection().close();
+        Assert.assertEquals(count + 1, raw.getRoundTripCount());
+        pool.close();
+    }
+
+    public void testAdapterClassName() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setAliveTestClassName(ConnectionAliveTestByEmptyQuery.class.getName());
+        Assert.assertTrue(config.check().getAliveTest() instanceof ConnectionAliveTestByEmptyQuery);
+    }
+}
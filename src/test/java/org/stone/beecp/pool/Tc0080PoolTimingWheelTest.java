@@ -0,0 +1,125 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.base.TestUtil.invokeMethod2;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0080PoolTimingWheelTest extends TestCase {
+
+    public void testWheelRounds() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Connection con = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con, ProxyBaseWrapper.class, "p");
+        con.close();
+        pool.close();
+
+        ConnectionTimingWheel wheel = new ConnectionTimingWheel(1L);
+        List<PooledConnection> dueList = new ArrayList<>();
+        long time = System.currentTimeMillis();
+        wheel.add(p);
+        wheel.advance(time, dueList);
+        Assert.assertEquals(1, dueList.size());//new added
+
+        dueList.clear();
+        wheel.schedule(p, time + 1000L);//more than one round
+        wheel.advance(time + 600L, dueList);
+        Assert.assertTrue(dueList.isEmpty());
+        wheel.advance(time + 1100L, dueList);
+        Assert.assertEquals(1, dueList.size());
+        Assert.assertSame(p, dueList.get(0));
+    }
+
+    public void testIdleTimeout() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(2);
+        config.setMaxActive(2);
+        config.setIdleTimeout(200L);
+        config.setEnableTimingWheel(true);
+        config.setTimingWheelTickTime(50L);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        Assert.assertEquals(2, pool.getTotalSize());
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(600L));
+        Assert.assertEquals(1, pool.getTotalSize());//in using
+        con.close();
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(600L));
+        Assert.assertEquals(0, pool.getTotalSize());
+        pool.close();
+    }
+
+    public void testNoTimeoutCheckInScan() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(1);
+        config.setMaxActive(1);
+        config.setIdleTimeout(50L);
+        config.setEnableTimingWheel(true);
+        config.setTimingWheelTickTime(TimeUnit.MINUTES.toMillis(1L));
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L));
+        invokeMethod2(pool, "closeIdleTimeoutConnection");
+        Assert.assertEquals(1, pool.getTotalSize());//idle timeout only checked on wheel
+        pool.close();
+    }
+
+    public void testHoldTimeout() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setHoldTimeout(200L);
+        config.setEnableTimingWheel(true);
+        config.setTimingWheelTickTime(50L);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con = pool.getConnection();
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(600L));
+        Assert.assertTrue(con.isClosed());
+        Assert.assertEquals(1, pool.getIdleSize());
+        pool.close();
+    }
+
+    public void testHoldTimeoutAfterIdleInWheel() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(1);
+        config.setMaxActive(1);
+        config.setIdleTimeout(TimeUnit.MINUTES.toMillis(1L));
+        config.setHoldTimeout(300L);
+        config.setEnableTimingWheel(true);
+        config.setTimingWheelTickTime(50L);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(500L));//idle connection placed in wheel
+        Connection con = pool.getConnection();
+        long borrowTime = System.currentTimeMillis();
+        long endTime = borrowTime + 5000L;
+        while (!con.isClosed() && System.currentTimeMillis() < endTime)
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10L));
+        Assert.assertTrue(con.isClosed());
+        Assert.assertTrue(System.currentTimeMillis() - borrowTime < 1000L);//not at idle deadline
+        pool.close();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+import static org.stone.beecp.pool.ConnectionPoolStatics.CON_IDLE;
+
+public class Tc0081PoolVirtualThreadModeTest extends TestCase {
+
+    public void testAffinityCache() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(2);
+        config.setMaxActive(2);
+        config.setEnableVirtualThreadMode(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        Assert.assertFalse((Boolean) getFieldValue(pool, "enableThreadLocal"));
+        Assert.assertNull(getFieldValue(pool, "threadLocal"));
+        Assert.assertNotNull(getFieldValue(pool, "affinityCache"));
+
+        Connection con1 = pool.getConnection();
+        PooledConnection p1 = (PooledConnection) getFieldValue(con1, ProxyBaseWrapper.class, "p");
+        con1.close();
+        Connection con2 = pool.getConnection();//hit in affinity cache
+        Assert.assertSame(p1, getFieldValue(con2, ProxyBaseWrapper.class, "p"));
+
+        Connection con3 = pool.getConnection();//cached connection in using,so search another
+        PooledConnection p3 = (PooledConnection) getFieldValue(con3, ProxyBaseWrapper.class, "p");
+        Assert.assertNotSame(p1, p3);
+        con2.close();
+        con3.close();
+        pool.close();
+    }
+
+    public void testThreadLocalInDefault() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        Assert.assertTrue((Boolean) getFieldValue(pool, "enableThreadLocal"));
+        Assert.assertNull(getFieldValue(pool, "affinityCache"));
+        pool.close();
+    }
+
+    public void testCloseWithoutMonitor() throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(1);
+        config.setEnableVirtualThreadMode(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+
+        Connection con1 = pool.getConnection();
+        PooledConnection p = (PooledConnection) getFieldValue(con1, ProxyBaseWrapper.class, "p");
+        Assert.assertSame(con1, p.proxyInUsing);
+        con1.close();
+        Assert.assertNull(p.proxyInUsing);
+        Assert.assertEquals(CON_IDLE, p.state);
+
+        Connection con2 = pool.getConnection();
+        Assert.assertSame(p, getFieldValue(con2, ProxyBaseWrapper.class, "p"));
+        con1.close();//closed proxy not detach connection of other borrower
+        con1.abort(null);
+        Assert.assertSame(con2, p.proxyInUsing);
+        Assert.assertFalse(con2.isClosed());
+
+        con2.abort(null);
+        con2.close();
+        Assert.assertTrue(con2.isClosed());
+        Assert.assertEquals(0, pool.getTotalSize());
+        pool.close();
+    }
+}
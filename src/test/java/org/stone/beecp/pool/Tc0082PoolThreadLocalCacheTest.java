@@ -0,0 +1,74 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeDataSourceConfig;
+
+import java.sql.Connection;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0082PoolThreadLocalCacheTest extends TestCase {
+
+    public void testSingleEntryCache() throws Exception {
+        FastConnectionPool pool = createPool(1);
+        this.borrowTwoConnections(pool);
+        PooledConnection[] ps = this.borrowTwoConnections(pool);//hit the last used one only
+        Assert.assertEquals(0.25D, pool.getThreadLocalHitRate(), 0.001D);
+        Assert.assertEquals(0.25D, pool.getPoolMonitorVo().getThreadLocalHitRate(), 0.001D);
+        Assert.assertNotSame(ps[0], ps[1]);
+        pool.close();
+    }
+
+    public void testMultiEntryCache() throws Exception {
+        FastConnectionPool pool = createPool(2);
+        PooledConnection[] ps1 = this.borrowTwoConnections(pool);
+        PooledConnection[] ps2 = this.borrowTwoConnections(pool);//both hit in cache
+        Assert.assertEquals(0.5D, pool.getThreadLocalHitRate(), 0.001D);
+        Assert.assertSame(ps1[0], ps2[0]);
+        Assert.assertSame(ps1[1], ps2[1]);
+        pool.close();
+    }
+
+    public void testHitRateWithoutStatistics() throws Exception {
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(createDefault());
+        pool.getConnection().close();
+        pool.getConnection().close();
+        Assert.assertEquals(0D, pool.getThreadLocalHitRate(), 0.001D);
+        pool.close();
+    }
+
+    private static FastConnectionPool createPool(int cacheSize) throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setInitialSize(2);
+        config.setMaxActive(2);
+        config.setThreadLocalCacheSize(cacheSize);
+        config.setEnableBorrowLatencyStatistics(true);
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        return pool;
+    }
+
+    //borrow two connections at once(such as read/write split),then return them
+    private PooledConnection[] borrowTwoConnections(FastConnectionPool pool) throws Exception {
+        Connection con1 = pool.getConnection();
+        Connection con2 = pool.getConnection();
+        PooledConnection[] ps = new PooledConnection[]{
+                (PooledConnection) getFieldValue(con1, ProxyBaseWrapper.class, "p"),
+                (PooledConnection) getFieldValue(con2, ProxyBaseWrapper.class, "p")};
+        con1.close();
+        con2.close();
+        return ps;
+    }
+}
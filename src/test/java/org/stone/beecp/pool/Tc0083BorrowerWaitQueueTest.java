@@ -0,0 +1,91 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.stone.base.TestUtil.getFieldValue;
+
+public class Tc0083BorrowerWaitQueueTest extends TestCase {
+
+    public void testFifoAndRemoval() throws Exception {
+        BorrowerWaitQueue queue = new BorrowerWaitQueue();
+        Assert.assertTrue(queue.isEmpty());
+
+        Borrower[] borrowers = new Borrower[5];
+        for (int i = 0; i < borrowers.length; i++) {
+            borrowers[i] = new Borrower();
+            queue.offer(borrowers[i]);
+        }
+        Assert.assertEquals(toList(borrowers[0], borrowers[1], borrowers[2], borrowers[3], borrowers[4]), toList(queue));
+
+        Assert.assertTrue(queue.remove(borrowers[2]));//tombstone in middle
+        Assert.assertFalse(queue.remove(borrowers[2]));
+        Assert.assertNull(borrowers[2].waitNode);
+        Assert.assertEquals(toList(borrowers[0], borrowers[1], borrowers[3], borrowers[4]), toList(queue));
+
+        Assert.assertTrue(queue.remove(borrowers[0]));//head moved to first live one
+        Assert.assertTrue(queue.remove(borrowers[1]));
+        BorrowerWaitQueue.Node head = (BorrowerWaitQueue.Node) getFieldValue(queue, "head");
+        Assert.assertSame(borrowers[3], head.next.borrower);
+
+        Assert.assertTrue(queue.remove(borrowers[4]));//last node
+        Assert.assertEquals(toList(borrowers[3]), toList(queue));
+        Assert.assertTrue(queue.remove(borrowers[3]));
+        Assert.assertTrue(queue.isEmpty());
+
+        queue.offer(borrowers[0]);//offer again after removal
+        Assert.assertEquals(toList(borrowers[0]), toList(queue));
+    }
+
+    public void testConcurrentOfferAndRemoval() throws Exception {
+        final BorrowerWaitQueue queue = new BorrowerWaitQueue();
+        final int threadSize = 8;
+        final int loopSize = 10000;
+        final CountDownLatch latch = new CountDownLatch(threadSize);
+        final AtomicInteger failedCount = new AtomicInteger();
+        for (int i = 0; i < threadSize; i++) {
+            new Thread() {
+                public void run() {
+                    Borrower b = new Borrower();
+                    for (int j = 0; j < loopSize; j++) {
+                        queue.offer(b);
+                        if (!queue.remove(b)) failedCount.incrementAndGet();
+                    }
+                    latch.countDown();
+                }
+            }.start();
+        }
+        latch.await();
+        Assert.assertEquals(0, failedCount.get());
+        Assert.assertTrue(queue.isEmpty());
+        Assert.assertTrue(toList(queue).isEmpty());
+    }
+
+    private static List<Borrower> toList(Borrower... borrowers) {
+        List<Borrower> list = new ArrayList<>(borrowers.length);
+        for (Borrower b : borrowers)
+            list.add(b);
+        return list;
+    }
+
+    private static List<Borrower> toList(BorrowerWaitQueue queue) {
+        List<Borrower> list = new ArrayList<>();
+        for (Borrower b : queue)
+            list.add(b);
+        return list;
+    }
+}
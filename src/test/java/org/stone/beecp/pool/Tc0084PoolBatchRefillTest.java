@@ -0,0 +1,94 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * Copyright(C) Chris2018998,All rights reserved.
+ *
+ * Project owner contact:Chris2018998@tom.com.
+ *
+ * Project Licensed under Apache License v2.0
+ */
+package org.stone.beecp.pool;
+
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.stone.beecp.BeeConnectionFactory;
+import org.stone.beecp.BeeConnectionFuture;
+import org.stone.beecp.BeeDataSourceConfig;
+import org.stone.beecp.driver.MockConnection;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.stone.base.TestUtil.getFieldValue;
+import static org.stone.beecp.config.DsConfigFactory.createDefault;
+
+public class Tc0084PoolBatchRefillTest extends TestCase {
+    private static final long CREATION_TIME = 200L;//milliseconds
+    private static final int WAITER_SIZE = 4;
+
+    public void testSerialRefill() throws Exception {
+        FastConnectionPool pool = createPool(1);
+        Assert.assertNull(getFieldValue(pool, "refillExecutor"));
+        long elapsed = refillForWaiters(pool);
+        Assert.assertTrue(elapsed >= CREATION_TIME * WAITER_SIZE);
+        pool.close();
+    }
+
+    public void testBatchRefill() throws Exception {
+        FastConnectionPool pool = createPool(WAITER_SIZE);
+        Assert.assertNotNull(getFieldValue(pool, "refillExecutor"));
+        long elapsed = refillForWaiters(pool);
+        Assert.assertTrue(elapsed < CREATION_TIME * WAITER_SIZE);
+        pool.close();
+    }
+
+    public void testExecutorRebuiltOnRestart() throws Exception {
+        FastConnectionPool pool = createPool(WAITER_SIZE);
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) getFieldValue(pool, "refillExecutor");
+        BeeDataSourceConfig config = createDefault();
+        config.setServantCreationFanOut(1);
+        pool.clear(false, config);
+        Assert.assertTrue(executor.isShutdown());
+        Assert.assertNull(getFieldValue(pool, "refillExecutor"));
+        pool.close();
+    }
+
+    private static FastConnectionPool createPool(int fanOut) throws Exception {
+        BeeDataSourceConfig config = createDefault();
+        config.setMaxActive(WAITER_SIZE);
+        config.setParallelCreationSize(WAITER_SIZE);
+        config.setServantCreationFanOut(fanOut);
+        config.setMaxWait(TimeUnit.SECONDS.toMillis(10L));
+        config.setConnectionFactory(new BeeConnectionFactory() {
+            public Connection create() {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(CREATION_TIME));
+                return new MockConnection();
+            }
+        });
+        FastConnectionPool pool = new FastConnectionPool();
+        pool.init(config);
+        return pool;
+    }
+
+    //async borrowers wait in queue,connections are created by servant(or refill tasks) and transferred to them
+    private static long refillForWaiters(FastConnectionPool pool) throws Exception {
+        long startTime = System.currentTimeMillis();
+        List<BeeConnectionFuture<Connection>> futures = new ArrayList<>(WAITER_SIZE);
+        for (int i = 0; i < WAITER_SIZE; i++)
+            futures.add(pool.getConnectionAsync());
+
+        List<Connection> cons = new ArrayList<>(WAITER_SIZE);
+        for (BeeConnectionFuture<Connection> future : futures)
+            cons.add(future.get(10L, TimeUnit.SECONDS));
+        long elapsed = System.currentTimeMillis() - startTime;
+
+        Assert.assertEquals(WAITER_SIZE, pool.getUsingSize());
+        for (Connection con : cons)
+            con.close();
+        return elapsed;
+    }
+}